@@ -0,0 +1,53 @@
+package com.xn.uiframe;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.xn.uiframe.layout.CenterLayoutManager;
+import com.xn.uiframe.layout.HeaderLayoutManager;
+import com.xn.uiframe.test.DrawAllocationAuditor;
+import com.xn.uiframe.widget.HeaderRelativeLayout;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 框架中的自定义控件在onDraw中不能创建对象,否则滚动及动画时会频繁触发GC;
+ */
+@RunWith(AndroidJUnit4.class)
+public class DrawAllocationTest {
+
+    private static final int FRAMES = 100;
+
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    @Test
+    @UiThreadTest
+    public void headerRelativeLayoutDrawsWithoutAllocation() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        HeaderRelativeLayout header = new HeaderRelativeLayout(context);
+        header.setSplitLine(2f, Color.GRAY);
+
+        assertEquals(0, DrawAllocationAuditor.countDrawAllocations(header, 1080, 150, FRAMES));
+    }
+
+    @Test
+    @UiThreadTest
+    public void powerfulContainerLayoutDrawsWithoutAllocation() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        PowerfulContainerLayout container = new PowerfulContainerLayout(context);
+        container.setBackgroundColor(android.R.color.white);
+        HeaderLayoutManager.buildLayoutManager(container);
+        CenterLayoutManager.buildGeneralLayoutManager(container, R.layout.ui_frame_center_fragment);
+
+        assertEquals(0, DrawAllocationAuditor.countDrawAllocations(container, 1080, 1920, FRAMES));
+    }
+}
@@ -0,0 +1,54 @@
+package com.xn.uiframe.test;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.view.View;
+
+/**
+ * <p>
+ * 绘制分配检查工具: 把一个自定义视图在离屏Canvas上重复绘制多次,统计绘制期间当前线程的对象分配次数;
+ * 仅用于instrumentation测试,XNUiFrame和app两个模块的androidTest共用;
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class DrawAllocationAuditor {
+
+    private DrawAllocationAuditor() {
+    }
+
+    /**
+     * 统计视图重复绘制时的对象分配次数,第一次绘制作为预热不计入统计;
+     *
+     * @param view   需要检查的视图
+     * @param width  绘制宽度 px
+     * @param height 绘制高度 px
+     * @param frames 绘制次数
+     * @return 绘制期间当前线程的对象分配次数
+     */
+    @SuppressWarnings("deprecation")
+    public static int countDrawAllocations(View view, int width, int height, int frames) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, width, height);
+
+        Bitmap bitmap = Bitmap.createBitmap(Math.max(width, 1), Math.max(height, 1), Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        /**预热,首次绘制可能会初始化文字布局等缓存**/
+        view.draw(canvas);
+
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        try {
+            for (int i = 0; i < frames; i++) {
+                view.draw(canvas);
+            }
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        int count = Debug.getThreadAllocCount();
+        bitmap.recycle();
+        return count;
+    }
+}
@@ -11,10 +11,12 @@ import android.view.View;
 import android.widget.TextView;
 
 import com.xn.uiframe.animation.Easing;
+import com.xn.uiframe.builder.UIFrameViewBuilders;
 import com.xn.uiframe.interfaces.IBaseViewContainer;
 import com.xn.uiframe.interfaces.IBasicViewAdapter;
 import com.xn.uiframe.interfaces.ICompanionViewManager;
 import com.xn.uiframe.interfaces.ILayoutManager;
+import com.xn.uiframe.layout.AbstractLayoutManager;
 import com.xn.uiframe.layout.BottomLayoutManager;
 import com.xn.uiframe.layout.CenterLayoutManager;
 import com.xn.uiframe.layout.CenterMaskLayoutManager;
@@ -23,6 +25,8 @@ import com.xn.uiframe.layout.FullScreenLayoutManager;
 import com.xn.uiframe.layout.HeaderLayoutManager;
 import com.xn.uiframe.layout.TopLayoutManager;
 import com.xn.uiframe.refreshlayout.OnRefreshListener;
+import com.xn.uiframe.utils.LayerFrameTimer;
+import com.xn.uiframe.utils.SharedViewPool;
 
 /**
  * UIFrame视图容器类，封装了UI基本操作，
@@ -55,12 +59,34 @@ public class BaseViewContainer implements IBaseViewContainer, ICompanionViewMana
         }
     }
 
+    @Override
+    public void setElementViewVisible(ElementView elementCategory, boolean visible, Easing.EasingAnimation easing, long duration) {
+        ILayoutManager layoutManager = elementCategoryTypeToLayoutManager(elementCategory);
+        if (layoutManager instanceof AbstractLayoutManager) {
+            ((AbstractLayoutManager) layoutManager).setVisibility(visible ? View.VISIBLE : View.GONE, easing, duration);
+        }
+    }
+
     @Override
     public boolean isElementViewVisible(ElementView elementCategory) {
         ILayoutManager layoutManager = elementCategoryTypeToLayoutManager(elementCategory);
         return layoutManager == null ? false : layoutManager.getVisibility() == View.VISIBLE ? true : false;
     }
 
+    @Override
+    public void setElementViewVisible(ElementView elementCategory, int handle, boolean visible) {
+        ILayoutManager layoutManager = elementCategoryTypeToLayoutManager(elementCategory);
+        if (layoutManager instanceof AbstractLayoutManager) {
+            ((AbstractLayoutManager) layoutManager).setViewVisible(handle, visible);
+        }
+    }
+
+    @Override
+    public boolean isElementViewVisible(ElementView elementCategory, int handle) {
+        ILayoutManager layoutManager = elementCategoryTypeToLayoutManager(elementCategory);
+        return layoutManager instanceof AbstractLayoutManager && ((AbstractLayoutManager) layoutManager).isViewVisible(handle);
+    }
+
     @Override
     public void animateY(ElementView elementCategory, long duration) {
         ILayoutManager layoutManager = elementCategoryTypeToLayoutManager(elementCategory);
@@ -172,7 +198,13 @@ public class BaseViewContainer implements IBaseViewContainer, ICompanionViewMana
 
     @Override
     public View onCreateView() {
-        this.mContainer = (PowerfulContainerLayout) LayoutInflater.from(this.mContext).inflate(R.layout.ui_frame_container_layout, null, false);
+        if (UIFrameViewBuilders.isEnabled()) {
+            this.mContainer = UIFrameViewBuilders.buildContainer(this.mContext);
+        } else {
+            this.mContainer = (PowerfulContainerLayout) LayoutInflater.from(this.mContext).inflate(R.layout.ui_frame_container_layout, null, false);
+        }
+        /**开启了层级耗时统计时,按界面名称统计**/
+        this.mContainer.setLayerFrameTimer(LayerFrameTimer.create(this.mBasicViewAdapter.getClass().getSimpleName()));
         this.mHeaderLayoutManager = mBasicViewAdapter.addHeaderView(mContainer);
         this.mTopLayoutManager = mBasicViewAdapter.addTopView(mContainer);
         this.mBottomLayoutManager = mBasicViewAdapter.addBottomView(mContainer);
@@ -182,6 +214,13 @@ public class BaseViewContainer implements IBaseViewContainer, ICompanionViewMana
             this.mBasicViewAdapter.addCompanionScrollableHeader(this.mCenterLayoutManager);
             this.mBasicViewAdapter.addCompanionScrollableFooter(this.mCenterLayoutManager);
             this.mBasicViewAdapter.onCompanionViewAddFinished(this.mCenterLayoutManager);
+        } else if (mCenterLayoutManager.getCenterBuildType() == CenterLayoutManager.CENTER_TYPE_PULL_RECYCLER_VIEW
+                && this.mContext instanceof SharedViewPool.Owner) {
+            /**宿主Activity开启了共享时,其中的Fragment共享行视图池,切换时直接复用已经创建的行视图**/
+            SharedViewPool pool = ((SharedViewPool.Owner) this.mContext).getSharedViewPool();
+            if (pool != null) {
+                this.mCenterLayoutManager.setRecycledViewPool(pool);
+            }
         }
 
         this.mCenterMaskLayoutManager = mBasicViewAdapter.addCenterMaskView(mContainer);
@@ -198,6 +237,107 @@ public class BaseViewContainer implements IBaseViewContainer, ICompanionViewMana
         return mContainer;
     }
 
+    @Override
+    public LayerStateSnapshot saveLayerState() {
+        LayerStateSnapshot state = new LayerStateSnapshot();
+        for (ElementView element : ElementView.values()) {
+            ILayoutManager layoutManager = elementCategoryTypeToLayoutManager(element);
+            if (layoutManager instanceof AbstractLayoutManager) {
+                AbstractLayoutManager alm = (AbstractLayoutManager) layoutManager;
+                state.putLayer(element, alm.getVisibility(), alm.getPhaseX(), alm.getPhaseY());
+                state.putViewVisibilities(element, alm.getViewVisibilities(), alm.getHandleVisibilities());
+            } else {
+                state.putLayer(element, LayerStateSnapshot.VISIBILITY_ABSENT, 1f, 1f);
+            }
+        }
+        if (mCenterLayoutManager != null) {
+            state.putRefreshEnabled(mCenterLayoutManager.isRefreshEnabled(), mCenterLayoutManager.isLoadMoreEnabled());
+        }
+        if (mHeaderLayoutManager != null) {
+            state.putHeaderTexts(mHeaderLayoutManager.getHeaderLeftText(),
+                    mHeaderLayoutManager.getHeaderCenterText(),
+                    mHeaderLayoutManager.getHeaderRightText());
+        }
+        return state;
+    }
+
+    @Override
+    public void restoreLayerState(LayerStateSnapshot state) {
+        if (state == null) {
+            return;
+        }
+        for (ElementView element : ElementView.values()) {
+            ILayoutManager layoutManager = elementCategoryTypeToLayoutManager(element);
+            int visibility = state.getVisibility(element);
+            if (!(layoutManager instanceof AbstractLayoutManager) || visibility == LayerStateSnapshot.VISIBILITY_ABSENT) {
+                continue;
+            }
+            AbstractLayoutManager alm = (AbstractLayoutManager) layoutManager;
+            /**多视图的层级逐个恢复每个视图的可见状态**/
+            int[] visibilities = state.getViewVisibilities(element);
+            if (visibilities != null) {
+                alm.restoreViewVisibilities(visibilities, state.getHandleVisibilities(element));
+            } else {
+                alm.setVisibility(visibility);
+            }
+            alm.setPhase(state.getPhaseX(element), state.getPhaseY(element));
+        }
+        if (mCenterLayoutManager != null) {
+            mCenterLayoutManager.enableRefresh(state.isRefreshEnabled());
+            mCenterLayoutManager.enableLoadMore(state.isLoadMoreEnabled());
+        }
+        if (mHeaderLayoutManager != null) {
+            HeaderLayoutManager.HeaderTransaction transaction = mHeaderLayoutManager.beginTransaction();
+            if (state.getHeaderLeftText() != null) {
+                transaction.setLeftText(state.getHeaderLeftText());
+            }
+            if (state.getHeaderCenterText() != null) {
+                transaction.setCenterText(state.getHeaderCenterText());
+            }
+            if (state.getHeaderRightText() != null) {
+                transaction.setRightText(state.getHeaderRightText());
+            }
+            transaction.commit();
+        }
+    }
+
+    @Override
+    public long releaseHiddenLayerViews() {
+        long bytes = 0;
+        if (mCenterMaskLayoutManager != null) {
+            bytes += mCenterMaskLayoutManager.releaseHiddenViews();
+        }
+        if (mFullScreenLayoutManager != null) {
+            bytes += mFullScreenLayoutManager.releaseHiddenViews();
+        }
+        if (mDialogLayoutManager != null) {
+            bytes += mDialogLayoutManager.releaseHiddenViews();
+        }
+        return bytes;
+    }
+
+    @Override
+    public long getReleasedLayerBytes() {
+        long bytes = 0;
+        if (mCenterMaskLayoutManager != null) {
+            bytes += mCenterMaskLayoutManager.getReleasedBytes();
+        }
+        if (mFullScreenLayoutManager != null) {
+            bytes += mFullScreenLayoutManager.getReleasedBytes();
+        }
+        if (mDialogLayoutManager != null) {
+            bytes += mDialogLayoutManager.getReleasedBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public void onDestroyView() {
+        if (mCenterLayoutManager != null) {
+            mCenterLayoutManager.releaseWebView();
+        }
+    }
+
     private ILayoutManager elementCategoryTypeToLayoutManager(ElementView category) {
 
         if (category == ElementView.HeaderView) {
@@ -225,6 +365,13 @@ public class BaseViewContainer implements IBaseViewContainer, ICompanionViewMana
         }
     }
 
+    @Override
+    public void setScrollLinkedCollapse(boolean enable) {
+        if (mCenterLayoutManager != null) {
+            this.mCenterLayoutManager.setScrollLinkedCollapse(enable);
+        }
+    }
+
     @Override
     public void stopRefresh(boolean isSuccess) {
         if (mCenterLayoutManager != null) {
@@ -239,6 +386,29 @@ public class BaseViewContainer implements IBaseViewContainer, ICompanionViewMana
         }
     }
 
+    @Override
+    public boolean stopRefresh(int generation, boolean isSuccess) {
+        if (mCenterLayoutManager != null) {
+            return this.mCenterLayoutManager.stopRefresh(generation, isSuccess);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean stopLoadMore(int generation, boolean isSuccess) {
+        if (mCenterLayoutManager != null) {
+            return this.mCenterLayoutManager.stopLoadMore(generation, isSuccess);
+        }
+        return false;
+    }
+
+    @Override
+    public void autoRefresh() {
+        if (mCenterLayoutManager != null) {
+            this.mCenterLayoutManager.autoRefresh();
+        }
+    }
+
     @Override
     public void enableRefresh(boolean enable) {
         if (mCenterLayoutManager != null) {
@@ -0,0 +1,199 @@
+package com.xn.uiframe;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.text.TextUtils;
+import android.util.SparseIntArray;
+
+/**
+ * <p>
+ * 界面各层级状态的快照: 每个{@link ElementView}的可见状态和动画进度(phaseX,phaseY),中间视图的下拉刷新/加载更多开关,
+ * 以及头部三个文字; 由{@link BaseViewContainer#saveLayerState()}生成,
+ * UIFrameBasicActivity,UIFrameBasicFragment在onSaveInstanceState中保存,进程被回收后重建界面时恢复;
+ * 一个层级有多个视图(CenterMask,Dialog等)时,按handle及添加顺序保存每个视图的可见状态;
+ * <br>
+ * 布局管理器持有View及容器对象,不能也不应该被序列化,需要保存的界面状态统一通过这个类保存;
+ * 快照只恢复状态,视图本身仍然由各个add*View方法重新创建,重建界面时的构造耗时不会减少;
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class LayerStateSnapshot implements Parcelable {
+
+    /**
+     * 该层级不存在
+     */
+    static final int VISIBILITY_ABSENT = -1;
+
+    private static final int FLAG_CAN_REFRESH = 0x01;
+    private static final int FLAG_CAN_LOAD = 0x02;
+
+    private final int[] mVisibilities;
+    private final float[] mPhaseX;
+    private final float[] mPhaseY;
+    /**
+     * 每个层级中没有handle的视图的可见状态,按添加顺序排列
+     */
+    private final int[][] mViewVisibilities;
+    /**
+     * 每个层级中通过handle添加的视图: handle及对应的可见状态
+     */
+    private final int[][] mHandleKeys;
+    private final int[][] mHandleVisibilities;
+    private int mRefreshFlags;
+    private CharSequence mHeaderLeftText;
+    private CharSequence mHeaderCenterText;
+    private CharSequence mHeaderRightText;
+
+    LayerStateSnapshot() {
+        int count = ElementView.values().length;
+        mVisibilities = new int[count];
+        mPhaseX = new float[count];
+        mPhaseY = new float[count];
+        mViewVisibilities = new int[count][];
+        mHandleKeys = new int[count][];
+        mHandleVisibilities = new int[count][];
+    }
+
+    private LayerStateSnapshot(Parcel in) {
+        mVisibilities = in.createIntArray();
+        mPhaseX = in.createFloatArray();
+        mPhaseY = in.createFloatArray();
+        int count = mVisibilities.length;
+        mViewVisibilities = new int[count][];
+        mHandleKeys = new int[count][];
+        mHandleVisibilities = new int[count][];
+        for (int i = 0; i < count; i++) {
+            mViewVisibilities[i] = in.createIntArray();
+            mHandleKeys[i] = in.createIntArray();
+            mHandleVisibilities[i] = in.createIntArray();
+        }
+        mRefreshFlags = in.readInt();
+        mHeaderLeftText = TextUtils.CHAR_SEQUENCE_CREATOR.createFromParcel(in);
+        mHeaderCenterText = TextUtils.CHAR_SEQUENCE_CREATOR.createFromParcel(in);
+        mHeaderRightText = TextUtils.CHAR_SEQUENCE_CREATOR.createFromParcel(in);
+    }
+
+    void putLayer(ElementView element, int visibility, float phaseX, float phaseY) {
+        int index = element.ordinal();
+        mVisibilities[index] = visibility;
+        mPhaseX[index] = phaseX;
+        mPhaseY[index] = phaseY;
+    }
+
+    void putViewVisibilities(ElementView element, int[] visibilities, SparseIntArray handleVisibilities) {
+        int index = element.ordinal();
+        mViewVisibilities[index] = visibilities;
+        int size = handleVisibilities.size();
+        mHandleKeys[index] = new int[size];
+        mHandleVisibilities[index] = new int[size];
+        for (int i = 0; i < size; i++) {
+            mHandleKeys[index][i] = handleVisibilities.keyAt(i);
+            mHandleVisibilities[index][i] = handleVisibilities.valueAt(i);
+        }
+    }
+
+    void putRefreshEnabled(boolean canRefresh, boolean canLoad) {
+        mRefreshFlags = (canRefresh ? FLAG_CAN_REFRESH : 0) | (canLoad ? FLAG_CAN_LOAD : 0);
+    }
+
+    void putHeaderTexts(CharSequence left, CharSequence center, CharSequence right) {
+        this.mHeaderLeftText = left;
+        this.mHeaderCenterText = center;
+        this.mHeaderRightText = right;
+    }
+
+    /**
+     * @param element 层级
+     * @return 层级的可见状态,层级不存在时返回-1
+     */
+    public int getVisibility(ElementView element) {
+        return mVisibilities[element.ordinal()];
+    }
+
+    /**
+     * @param element 层级
+     * @return 层级中没有handle的视图的可见状态,按添加顺序排列,层级不存在时返回null
+     */
+    public int[] getViewVisibilities(ElementView element) {
+        return mViewVisibilities[element.ordinal()];
+    }
+
+    /**
+     * @param element 层级
+     * @return 层级中通过handle添加的视图的可见状态,层级不存在时返回null
+     */
+    public SparseIntArray getHandleVisibilities(ElementView element) {
+        int[] keys = mHandleKeys[element.ordinal()];
+        if (keys == null) {
+            return null;
+        }
+        int[] values = mHandleVisibilities[element.ordinal()];
+        SparseIntArray visibilities = new SparseIntArray(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            visibilities.put(keys[i], values[i]);
+        }
+        return visibilities;
+    }
+
+    public float getPhaseX(ElementView element) {
+        return mPhaseX[element.ordinal()];
+    }
+
+    public float getPhaseY(ElementView element) {
+        return mPhaseY[element.ordinal()];
+    }
+
+    public boolean isRefreshEnabled() {
+        return (mRefreshFlags & FLAG_CAN_REFRESH) != 0;
+    }
+
+    public boolean isLoadMoreEnabled() {
+        return (mRefreshFlags & FLAG_CAN_LOAD) != 0;
+    }
+
+    public CharSequence getHeaderLeftText() {
+        return mHeaderLeftText;
+    }
+
+    public CharSequence getHeaderCenterText() {
+        return mHeaderCenterText;
+    }
+
+    public CharSequence getHeaderRightText() {
+        return mHeaderRightText;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeIntArray(mVisibilities);
+        dest.writeFloatArray(mPhaseX);
+        dest.writeFloatArray(mPhaseY);
+        for (int i = 0; i < mVisibilities.length; i++) {
+            dest.writeIntArray(mViewVisibilities[i]);
+            dest.writeIntArray(mHandleKeys[i]);
+            dest.writeIntArray(mHandleVisibilities[i]);
+        }
+        dest.writeInt(mRefreshFlags);
+        TextUtils.writeToParcel(mHeaderLeftText, dest, flags);
+        TextUtils.writeToParcel(mHeaderCenterText, dest, flags);
+        TextUtils.writeToParcel(mHeaderRightText, dest, flags);
+    }
+
+    public static final Creator<LayerStateSnapshot> CREATOR = new Creator<LayerStateSnapshot>() {
+        @Override
+        public LayerStateSnapshot createFromParcel(Parcel in) {
+            return new LayerStateSnapshot(in);
+        }
+
+        @Override
+        public LayerStateSnapshot[] newArray(int size) {
+            return new LayerStateSnapshot[size];
+        }
+    };
+}
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.PixelFormat;
 import android.graphics.drawable.Drawable;
 import android.os.Build;
 import android.support.annotation.ColorInt;
@@ -14,10 +15,13 @@ import android.support.v4.content.ContextCompat;
 import android.util.AttributeSet;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
 
 import com.xn.uiframe.interfaces.IContainerManager;
 import com.xn.uiframe.interfaces.ILayoutManager;
 import com.xn.uiframe.layout.AbstractLayoutManager;
+import com.xn.uiframe.utils.LayerFrameTimer;
+import com.xn.uiframe.utils.LayoutPassRecorder;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -43,6 +47,59 @@ public class PowerfulContainerLayout extends ViewGroup implements IContainerMana
     private List<ILayoutManager<ILayoutManager>> mLayoutManagers;
     private @ColorRes  int mBackgroundColor = 0;
     private @DrawableRes int mBackgroundResource = 0;
+    /**
+     * 背景画笔及背景图片在设置时准备好，避免在onDraw中创建对象
+     */
+    private final Paint mBackgroundPaint = new Paint();
+    private Drawable mBackgroundDrawable;
+
+    /**
+     * 是否跳过被不透明的FullScreen,Dialog层完全遮挡的层级的绘制
+     */
+    private boolean mOcclusionCullingEnabled = true;
+    /**
+     * 当前帧被完全遮挡的视图,在每次绘制开始时重新计算
+     */
+    private final List<View> mOccludedViews = new ArrayList<>();
+    private boolean mBackgroundOccluded;
+    /**
+     * 当前遮挡其它层级的视图
+     */
+    private View mOccluder;
+    /**
+     * 遮挡视图的透明度,平移,背景等属性在硬件加速下只更新它自己的RenderNode,不会重新记录容器的绘制内容;
+     * 每帧绘制前检查遮挡视图是否仍然完全遮挡,不再遮挡时重绘容器,恢复被跳过的层级;
+     */
+    private final ViewTreeObserver.OnPreDrawListener mOccluderWatcher = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            if (mOccluder != null && !isOpaqueCover(mOccluder)) {
+                mOccluder = null;
+                invalidate();
+            }
+            return true;
+        }
+    };
+    /**
+     * 因被遮挡而跳过绘制的次数
+     */
+    private long mSkippedDrawCount;
+
+    /**
+     * 滚动联动折叠时,该视图只绘制到mClipBottom为止,避免按完整高度测量的Center层覆盖Bottom层
+     */
+    private View mClipChild;
+    private int mClipBottom;
+
+    /**
+     * 各层级耗时统计,为null时不统计
+     */
+    private LayerFrameTimer mLayerFrameTimer;
+
+    /**
+     * 布局过程记录器,为null时不记录
+     */
+    private LayoutPassRecorder mLayoutPassRecorder;
 
     public PowerfulContainerLayout(Context context) {
         super(context);
@@ -69,9 +126,20 @@ public class PowerfulContainerLayout extends ViewGroup implements IContainerMana
 
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        long passStart = mLayoutPassRecorder == null ? 0 : System.nanoTime();
 
         for (ILayoutManager<ILayoutManager> manager : mLayoutManagers) {
-            manager.onLayout(l, t, r, b);
+            if (mLayerFrameTimer == null) {
+                manager.onLayout(l, t, r, b);
+            } else {
+                ElementView element = LayerFrameTimer.elementOf(manager.getLayer());
+                long start = mLayerFrameTimer.begin(element, LayerFrameTimer.PHASE_LAYOUT);
+                manager.onLayout(l, t, r, b);
+                mLayerFrameTimer.end(element, LayerFrameTimer.PHASE_LAYOUT, start);
+            }
+        }
+        if (mLayoutPassRecorder != null) {
+            mLayoutPassRecorder.recordLayout(l, t, r, b, mLayoutManagers, System.nanoTime() - passStart);
         }
         /**处理不同层级的触摸事件**/
         this.dealWithTouchEvents();
@@ -81,17 +149,40 @@ public class PowerfulContainerLayout extends ViewGroup implements IContainerMana
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        long passStart = mLayoutPassRecorder == null ? 0 : System.nanoTime();
         /**先排序，按顺序进行测量**/
         Collections.sort(mLayoutManagers);
         for (ILayoutManager<ILayoutManager> manager : mLayoutManagers) {
-            manager.onMeasure(widthMeasureSpec, heightMeasureSpec);
+            if (mLayerFrameTimer == null) {
+                manager.onMeasure(widthMeasureSpec, heightMeasureSpec);
+            } else {
+                ElementView element = LayerFrameTimer.elementOf(manager.getLayer());
+                long start = mLayerFrameTimer.begin(element, LayerFrameTimer.PHASE_MEASURE);
+                manager.onMeasure(widthMeasureSpec, heightMeasureSpec);
+                mLayerFrameTimer.end(element, LayerFrameTimer.PHASE_MEASURE, start);
+            }
+        }
+        if (mLayoutPassRecorder != null) {
+            mLayoutPassRecorder.recordMeasure(widthMeasureSpec, heightMeasureSpec, mLayoutManagers, System.nanoTime() - passStart);
         }
     }
 
     public void measureChild(View view, int widthMeasureSpec, int heightMeasureSpec) {
+        if (mLayoutPassRecorder != null) {
+            mLayoutPassRecorder.onChildMeasured(view, widthMeasureSpec, heightMeasureSpec);
+        }
         super.measureChild(view, widthMeasureSpec, heightMeasureSpec);
     }
 
+    /**
+     * 设置布局过程记录器,用于离线重放布局计算,参见{@link LayoutPassRecorder}
+     *
+     * @param recorder 为null时停止记录
+     */
+    public void setLayoutPassRecorder(LayoutPassRecorder recorder) {
+        this.mLayoutPassRecorder = recorder;
+    }
+
     public List<ILayoutManager<ILayoutManager>> layoutManagers() {
         return mLayoutManagers;
     }
@@ -164,25 +255,246 @@ public class PowerfulContainerLayout extends ViewGroup implements IContainerMana
     @Override
     public void setBackgroundColor(@ColorRes int color) {
         this.mBackgroundColor = color;
+        if (color != 0) {
+            this.mBackgroundPaint.setColor(ContextCompat.getColor(getContext(), color));
+        }
         this.invalidate();
     }
 
     @Override
     public void setBackgroundResource(@DrawableRes int resource) {
         this.mBackgroundResource = resource;
+        this.mBackgroundDrawable = resource == 0 ? null : ContextCompat.getDrawable(getContext(), resource);
+        this.invalidate();
+    }
+
+    /**
+     * 设置是否跳过被遮挡层级的绘制,默认开启
+     *
+     * @param enabled true:跳过 false:全部绘制
+     */
+    public void setOcclusionCullingEnabled(boolean enabled) {
+        this.mOcclusionCullingEnabled = enabled;
         this.invalidate();
     }
 
+    /**
+     * 获得因被不透明层完全遮挡而跳过绘制的次数(包括容器背景及各层级视图),用于测试及过度绘制分析
+     *
+     * @return 跳过的次数
+     */
+    public long getSkippedDrawCount() {
+        return mSkippedDrawCount;
+    }
+
+    public void resetSkippedDrawCount() {
+        this.mSkippedDrawCount = 0;
+    }
+
+    /**
+     * 计算当前帧被遮挡的视图: 从最上层开始查找第一个完全覆盖容器且不透明的FullScreen,Dialog层视图,
+     * 在它之下的所有视图及容器背景都不需要绘制;
+     */
+    private void computeOccludedViews() {
+        mOccludedViews.clear();
+        mBackgroundOccluded = false;
+        mOccluder = null;
+        if (!mOcclusionCullingEnabled) {
+            return;
+        }
+        int occluderIndex = -1;
+        View occluder = null;
+        for (int i = mLayoutManagers.size() - 1; i >= 0 && occluder == null; i--) {
+            ILayoutManager<ILayoutManager> manager = mLayoutManagers.get(i);
+            if (manager.getLayer() < AbstractLayoutManager.Layer.LAYER_FULL_SCREEN_EXTRA) {
+                break;
+            }
+            List<View> views = manager.getContentViews();
+            for (int j = views.size() - 1; j >= 0; j--) {
+                if (isOpaqueCover(views.get(j))) {
+                    occluder = views.get(j);
+                    occluderIndex = i;
+                    break;
+                }
+            }
+        }
+        if (occluder == null) {
+            return;
+        }
+        mOccluder = occluder;
+        mBackgroundOccluded = true;
+        for (int i = 0; i <= occluderIndex; i++) {
+            List<View> views = mLayoutManagers.get(i).getContentViews();
+            for (int j = 0; j < views.size(); j++) {
+                View view = views.get(j);
+                if (view == occluder) {
+                    return;
+                }
+                mOccludedViews.add(view);
+            }
+        }
+    }
+
+    /**
+     * 视图是否可见、不透明且完全覆盖整个容器
+     */
+    private boolean isOpaqueCover(View view) {
+        if (view.getVisibility() != View.VISIBLE || view.getAlpha() < 1f
+                || view.getTranslationX() != 0 || view.getTranslationY() != 0) {
+            return false;
+        }
+        if (view.getLeft() > 0 || view.getTop() > 0 || view.getRight() < getWidth() || view.getBottom() < getHeight()) {
+            return false;
+        }
+        if (view.isOpaque()) {
+            return true;
+        }
+        Drawable background = view.getBackground();
+        return background != null && background.getOpacity() == PixelFormat.OPAQUE;
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (mOccludedViews.contains(child)) {
+            mSkippedDrawCount++;
+            return false;
+        }
+        if (child == mClipChild) {
+            int saveCount = canvas.save();
+            canvas.clipRect(0, 0, getWidth(), mClipBottom);
+            boolean result = drawChildTimed(canvas, child, drawingTime);
+            canvas.restoreToCount(saveCount);
+            return result;
+        }
+        return drawChildTimed(canvas, child, drawingTime);
+    }
+
+    private boolean drawChildTimed(Canvas canvas, View child, long drawingTime) {
+        if (mLayerFrameTimer == null) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
+        ElementView element = elementOfChild(child);
+        long start = mLayerFrameTimer.begin(element, LayerFrameTimer.PHASE_DRAW);
+        boolean result = super.drawChild(canvas, child, drawingTime);
+        mLayerFrameTimer.end(element, LayerFrameTimer.PHASE_DRAW, start);
+        return result;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        getViewTreeObserver().addOnPreDrawListener(mOccluderWatcher);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        getViewTreeObserver().removeOnPreDrawListener(mOccluderWatcher);
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        super.dispatchDraw(canvas);
+        if (mLayerFrameTimer != null) {
+            mLayerFrameTimer.onContainerDrawn();
+        }
+    }
+
+    /**
+     * 限制某个子视图的绘制区域,超出clipBottom的部分不绘制;只改变绘制,不触发重新布局;
+     * 同时把Bottom层的视图排到该子视图之后,Bottom层范围内的触摸由Bottom层优先处理
+     *
+     * @param child      子视图,为null时取消限制
+     * @param clipBottom 容器坐标系中的下边界
+     */
+    public void setChildClipBottom(View child, int clipBottom) {
+        if (child != null) {
+            raiseLayersCoveredBy(child);
+        }
+        if (child == mClipChild && clipBottom == mClipBottom) {
+            return;
+        }
+        this.mClipChild = child;
+        this.mClipBottom = clipBottom;
+        invalidate();
+    }
+
+    /**
+     * 按完整高度布局的子视图会延伸到Bottom层下方,而它在容器中排在Bottom层之后,绘制和触摸分发都在Bottom层之上;
+     * 这里把Bottom层的视图移到它之后,只调整子视图的顺序,不会触发重新布局,触摸仍然走ViewGroup的正常分发
+     */
+    private void raiseLayersCoveredBy(View child) {
+        ILayoutManager<ILayoutManager> owner = managerOfChild(child);
+        if (owner == null) {
+            return;
+        }
+        int moved = 0;
+        for (int i = 0; i < mLayoutManagers.size(); i++) {
+            ILayoutManager<ILayoutManager> manager = mLayoutManagers.get(i);
+            if (manager.getLayer() <= AbstractLayoutManager.Layer.LAYER_PART_OF_BASIC_TOP || manager.getLayer() >= owner.getLayer()) {
+                continue;
+            }
+            for (View view : manager.getContentViews()) {
+                int index = indexOfChild(view);
+                if (index < 0 || index > indexOfChild(child)) {
+                    continue;
+                }
+                detachViewFromParent(index);
+                attachViewToParent(view, indexOfChild(child) + 1 + moved, view.getLayoutParams());
+                moved++;
+            }
+        }
+        if (moved > 0) {
+            invalidate();
+        }
+    }
+
+    private ILayoutManager<ILayoutManager> managerOfChild(View child) {
+        for (int i = 0; i < mLayoutManagers.size(); i++) {
+            ILayoutManager<ILayoutManager> manager = mLayoutManagers.get(i);
+            if (manager.getContentViews().contains(child)) {
+                return manager;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 设置各层级measure,layout,draw的耗时统计
+     *
+     * @param timer 为null时不统计
+     */
+    public void setLayerFrameTimer(LayerFrameTimer timer) {
+        this.mLayerFrameTimer = timer;
+    }
+
+    public LayerFrameTimer getLayerFrameTimer() {
+        return mLayerFrameTimer;
+    }
+
+    private ElementView elementOfChild(View child) {
+        for (int i = 0; i < mLayoutManagers.size(); i++) {
+            ILayoutManager<ILayoutManager> manager = mLayoutManagers.get(i);
+            if (manager.getContentViews().contains(child)) {
+                return LayerFrameTimer.elementOf(manager.getLayer());
+            }
+        }
+        return ElementView.DialogView;
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
+        /**onDraw在dispatchDraw之前调用，在这里计算本帧被遮挡的视图**/
+        this.computeOccludedViews();
+        if (mBackgroundOccluded) {
+            mSkippedDrawCount++;
+            return;
+        }
         if (mBackgroundColor != 0) {
-            Paint p = new Paint();
-            p.setColor(ContextCompat.getColor(getContext(),mBackgroundColor));
-            canvas.drawRect(0f, 0f, this.getMeasuredWidth() * 1f, this.getMeasuredHeight() * 1f, p);
-        } else if (mBackgroundResource != 0) {
-            Drawable drawable = ContextCompat.getDrawable(getContext(),mBackgroundResource);
-            drawable.setBounds(0, 0, this.getMeasuredWidth(), this.getMeasuredHeight());
-            drawable.draw(canvas);
+            canvas.drawRect(0f, 0f, this.getMeasuredWidth() * 1f, this.getMeasuredHeight() * 1f, mBackgroundPaint);
+        } else if (mBackgroundDrawable != null) {
+            mBackgroundDrawable.setBounds(0, 0, this.getMeasuredWidth(), this.getMeasuredHeight());
+            mBackgroundDrawable.draw(canvas);
         }
         super.onDraw(canvas);
     }
@@ -1,5 +1,6 @@
 package com.xn.uiframe.activity;
 
+import android.content.ComponentCallbacks2;
 import android.os.Bundle;
 import android.support.annotation.ColorRes;
 import android.support.annotation.DrawableRes;
@@ -13,6 +14,7 @@ import android.widget.TextView;
 
 import com.xn.uiframe.BaseViewContainer;
 import com.xn.uiframe.ElementView;
+import com.xn.uiframe.LayerStateSnapshot;
 import com.xn.uiframe.R;
 import com.xn.uiframe.animation.Easing;
 import com.xn.uiframe.interfaces.IBaseViewContainer;
@@ -47,6 +49,7 @@ public abstract class UIFrameBasicActivity extends FragmentActivity implements
     public FragmentManager mFragmentManager;
     protected IBaseViewContainer mBaseViewContainer;
     private static final String SAVED_BUNDLE_KEY = "SAVED_BUNDLE_KEY";
+    private static final String SAVED_LAYER_STATE_KEY = "SAVED_LAYER_STATE_KEY";
     private Bundle mSavedInstanceState;
 
     @Override
@@ -63,6 +66,11 @@ public abstract class UIFrameBasicActivity extends FragmentActivity implements
         }
         /**设置头部视图点击事件**/
         this.setOnHeaderClickLister(this);
+        /**界面被系统回收后重建时，恢复各层级的状态**/
+        if (savedInstanceState != null && mBaseViewContainer != null) {
+            LayerStateSnapshot state = savedInstanceState.getParcelable(SAVED_LAYER_STATE_KEY);
+            mBaseViewContainer.restoreLayerState(state);
+        }
     }
 
     @Override
@@ -71,6 +79,19 @@ public abstract class UIFrameBasicActivity extends FragmentActivity implements
         if (this.isNeedEventBus()) {
             EventBusProxy.unregister(this);
         }
+        /**归还中间视图借用的WebView**/
+        if (mBaseViewContainer != null) {
+            mBaseViewContainer.onDestroyView();
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        /**内存不足时释放不可见的遮罩层,全屏层及对话框层视图,再次显示时重新创建**/
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW && mBaseViewContainer != null) {
+            mBaseViewContainer.releaseHiddenLayerViews();
+        }
     }
 
     /**
@@ -94,6 +115,9 @@ public abstract class UIFrameBasicActivity extends FragmentActivity implements
     @Override
     protected void onSaveInstanceState(Bundle outState) {
         outState.putBundle(SAVED_BUNDLE_KEY, mSavedInstanceState);
+        if (mBaseViewContainer != null) {
+            outState.putParcelable(SAVED_LAYER_STATE_KEY, mBaseViewContainer.saveLayerState());
+        }
         super.onSaveInstanceState(outState);
     }
 
@@ -228,6 +252,13 @@ public abstract class UIFrameBasicActivity extends FragmentActivity implements
         }
     }
 
+    @Override
+    public void setElementViewVisible(ElementView elementCategory, boolean visible, Easing.EasingAnimation easing, long duration) {
+        if (mBaseViewContainer != null) {
+            mBaseViewContainer.setElementViewVisible(elementCategory, visible, easing, duration);
+        }
+    }
+
     @Override
     public boolean isElementViewVisible(ElementView element) {
         if (mBaseViewContainer != null) {
@@ -236,6 +267,21 @@ public abstract class UIFrameBasicActivity extends FragmentActivity implements
         return false;
     }
 
+    @Override
+    public void setElementViewVisible(ElementView elementCategory, int handle, boolean visible) {
+        if (mBaseViewContainer != null) {
+            mBaseViewContainer.setElementViewVisible(elementCategory, handle, visible);
+        }
+    }
+
+    @Override
+    public boolean isElementViewVisible(ElementView elementCategory, int handle) {
+        if (mBaseViewContainer != null) {
+            return mBaseViewContainer.isElementViewVisible(elementCategory, handle);
+        }
+        return false;
+    }
+
     @Override
     public void animateY(ElementView elementCategory, long duration) {
         if (mBaseViewContainer != null) {
@@ -295,6 +341,13 @@ public abstract class UIFrameBasicActivity extends FragmentActivity implements
         }
     }
 
+    @Override
+    public void setScrollLinkedCollapse(boolean enable) {
+        if (mBaseViewContainer != null) {
+            mBaseViewContainer.setScrollLinkedCollapse(enable);
+        }
+    }
+
     @Override
     public void stopRefresh(boolean isSuccess) {
         if (mBaseViewContainer != null) {
@@ -309,6 +362,29 @@ public abstract class UIFrameBasicActivity extends FragmentActivity implements
         }
     }
 
+    @Override
+    public boolean stopRefresh(int generation, boolean isSuccess) {
+        if (mBaseViewContainer != null) {
+            return mBaseViewContainer.stopRefresh(generation, isSuccess);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean stopLoadMore(int generation, boolean isSuccess) {
+        if (mBaseViewContainer != null) {
+            return mBaseViewContainer.stopLoadMore(generation, isSuccess);
+        }
+        return false;
+    }
+
+    @Override
+    public void autoRefresh() {
+        if (mBaseViewContainer != null) {
+            mBaseViewContainer.autoRefresh();
+        }
+    }
+
     @Override
     public void enableRefresh(boolean enable) {
         if (mBaseViewContainer != null) {
@@ -1,5 +1,7 @@
 package com.xn.uiframe.activity;
 
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
 import android.os.Bundle;
 import android.support.annotation.ColorRes;
 import android.support.annotation.DrawableRes;
@@ -13,6 +15,7 @@ import android.widget.TextView;
 
 import com.xn.uiframe.BaseViewContainer;
 import com.xn.uiframe.ElementView;
+import com.xn.uiframe.LayerStateSnapshot;
 import com.xn.uiframe.animation.Easing;
 import com.xn.uiframe.interfaces.IBaseViewContainer;
 import com.xn.uiframe.interfaces.IBasicViewAdapter;
@@ -27,6 +30,7 @@ import com.xn.uiframe.layout.HeaderLayoutManager;
 import com.xn.uiframe.layout.TopLayoutManager;
 import com.xn.uiframe.refreshlayout.OnRefreshListener;
 import com.xn.uiframe.utils.EventBusProxy;
+import com.xn.uiframe.utils.RetainedContainerCache;
 
 /**
  * <p>
@@ -44,6 +48,29 @@ public abstract class UIFrameBasicFragment extends Fragment implements
         HeaderLayoutManager.OnHeaderViewClickListener {
 
     protected IBaseViewContainer mBaseViewContainer;
+    private static final String SAVED_LAYER_STATE_KEY = "SAVED_LAYER_STATE_KEY";
+
+    /**
+     * support包中的Fragment不会收到onTrimMemory,这里直接向Application注册
+     */
+    private final ComponentCallbacks2 mTrimMemoryCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            /**内存不足时释放不可见的遮罩层,全屏层及对话框层视图,再次显示时重新创建**/
+            if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW && mBaseViewContainer != null) {
+                mBaseViewContainer.releaseHiddenLayerViews();
+            }
+        }
+
+        @Override
+        public void onConfigurationChanged(Configuration newConfig) {
+        }
+
+        @Override
+        public void onLowMemory() {
+            onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        }
+    };
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
@@ -51,6 +78,7 @@ public abstract class UIFrameBasicFragment extends Fragment implements
         if (this.isNeedEventBus()) {
             EventBusProxy.register(this);
         }
+        getActivity().getApplicationContext().registerComponentCallbacks(mTrimMemoryCallbacks);
     }
 
     @Override
@@ -59,20 +87,73 @@ public abstract class UIFrameBasicFragment extends Fragment implements
         if (this.isNeedEventBus()) {
             EventBusProxy.unregister(this);
         }
+        getActivity().getApplicationContext().unregisterComponentCallbacks(mTrimMemoryCallbacks);
+        if (this.isRetainViewHierarchy()) {
+            RetainedContainerCache.getInstance(getActivity()).remove(this);
+            /**保留的视图在Fragment销毁时才归还中间视图借用的WebView**/
+            if (mBaseViewContainer != null) {
+                mBaseViewContainer.onDestroyView();
+            }
+        }
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        /**不保留视图时,视图销毁后归还中间视图借用的WebView**/
+        if (!this.isRetainViewHierarchy() && mBaseViewContainer != null) {
+            mBaseViewContainer.onDestroyView();
+        }
     }
 
     @Nullable
     @Override
     public View onCreateView(LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+        /**如果开启了视图保留，则直接重新挂载之前创建的视图，Activity重建后原来的视图会被丢弃**/
+        if (this.isRetainViewHierarchy()) {
+            RetainedContainerCache.Entry entry = RetainedContainerCache.getInstance(getActivity()).obtain(this, getActivity());
+            if (entry != null) {
+                mBaseViewContainer = entry.container;
+                return entry.view;
+            }
+        }
         mBaseViewContainer = new BaseViewContainer(getActivity(), this);
         View view = mBaseViewContainer.onCreateView();
         /**设置下拉刷新事件**/
         this.setOnRefreshListener(this);
         /**设置头部视图点击事件**/
         this.setOnHeaderClickLister(this);
+        /**界面被系统回收后重建时，恢复各层级的状态**/
+        if (savedInstanceState != null) {
+            LayerStateSnapshot state = savedInstanceState.getParcelable(SAVED_LAYER_STATE_KEY);
+            mBaseViewContainer.restoreLayerState(state);
+        }
+        if (this.isRetainViewHierarchy()) {
+            RetainedContainerCache.getInstance(getActivity()).put(this, getActivity(), mBaseViewContainer, view);
+        }
         return view;
     }
 
+    @Override
+    public void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (mBaseViewContainer != null) {
+            outState.putParcelable(SAVED_LAYER_STATE_KEY, mBaseViewContainer.saveLayerState());
+        }
+    }
+
+    /**
+     * 是否在视图销毁后保留视图容器,重新创建视图时直接复用,不再重新调用各个add*View方法;
+     * 适用于Tab切换等频繁销毁重建视图的场景,保留的个数及内存不足时的释放参见{@link RetainedContainerCache};
+     * <br>
+     * 注意: 复用视图时onAllViewConstructed等构造回调不会再次调用;
+     *
+     * @return true:保留 false:不保留
+     */
+    public boolean isRetainViewHierarchy() {
+        return false;
+    }
+
     @Override
     public void addCompanionScrollableHeader(CenterLayoutManager container) {
 
@@ -196,6 +277,13 @@ public abstract class UIFrameBasicFragment extends Fragment implements
         }
     }
 
+    @Override
+    public void setElementViewVisible(ElementView elementCategory, boolean visible, Easing.EasingAnimation easing, long duration) {
+        if (mBaseViewContainer != null) {
+            mBaseViewContainer.setElementViewVisible(elementCategory, visible, easing, duration);
+        }
+    }
+
     @Override
     public boolean isElementViewVisible(ElementView element) {
         if (mBaseViewContainer != null) {
@@ -204,6 +292,21 @@ public abstract class UIFrameBasicFragment extends Fragment implements
         return false;
     }
 
+    @Override
+    public void setElementViewVisible(ElementView elementCategory, int handle, boolean visible) {
+        if (mBaseViewContainer != null) {
+            mBaseViewContainer.setElementViewVisible(elementCategory, handle, visible);
+        }
+    }
+
+    @Override
+    public boolean isElementViewVisible(ElementView elementCategory, int handle) {
+        if (mBaseViewContainer != null) {
+            return mBaseViewContainer.isElementViewVisible(elementCategory, handle);
+        }
+        return false;
+    }
+
     @Override
     public void animateY(ElementView elementCategory, long duration) {
         if (mBaseViewContainer != null) {
@@ -263,6 +366,13 @@ public abstract class UIFrameBasicFragment extends Fragment implements
         }
     }
 
+    @Override
+    public void setScrollLinkedCollapse(boolean enable) {
+        if (mBaseViewContainer != null) {
+            mBaseViewContainer.setScrollLinkedCollapse(enable);
+        }
+    }
+
     @Override
     public void stopRefresh(boolean isSuccess) {
         if (mBaseViewContainer != null) {
@@ -277,6 +387,29 @@ public abstract class UIFrameBasicFragment extends Fragment implements
         }
     }
 
+    @Override
+    public boolean stopRefresh(int generation, boolean isSuccess) {
+        if (mBaseViewContainer != null) {
+            return mBaseViewContainer.stopRefresh(generation, isSuccess);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean stopLoadMore(int generation, boolean isSuccess) {
+        if (mBaseViewContainer != null) {
+            return mBaseViewContainer.stopLoadMore(generation, isSuccess);
+        }
+        return false;
+    }
+
+    @Override
+    public void autoRefresh() {
+        if (mBaseViewContainer != null) {
+            mBaseViewContainer.autoRefresh();
+        }
+    }
+
     @Override
     public void enableRefresh(boolean enable) {
         if (mBaseViewContainer != null) {
@@ -1,8 +1,15 @@
 
 package com.xn.uiframe.animation;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.ObjectAnimator;
+import android.animation.ValueAnimator;
 import android.animation.ValueAnimator.AnimatorUpdateListener;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Object responsible for all animations in the Chart. ANIMATIONS ONLY WORK FOR
@@ -15,6 +22,39 @@ public class UIFrameViewAnimator {
     /** object that is updated upon animation update */
     private AnimatorUpdateListener mListener;
 
+    /** provides the views that are promoted to hardware layers while animating */
+    private AnimatedViewsProvider mAnimatedViewsProvider;
+
+    /** listener that promotes / demotes the animated views, shared by all animators */
+    private final LayerPromotionListener mLayerPromotionListener = new LayerPromotionListener();
+
+    /**
+     * Number of consecutive animation frames a view must keep its size before it
+     * is promoted. The layout managers turn the phases into measure specs, so a
+     * phase animation usually resizes the view every frame, and a resized layer
+     * is reallocated and re-rendered, which costs more than drawing directly.
+     */
+    private static final int STABLE_FRAMES = 2;
+
+    /** the reversible transitions of the x- and y-phase, reused when interrupted */
+    private final Transition mTransitionX = new Transition("phaseX");
+    private final Transition mTransitionY = new Transition("phaseY");
+
+    /**
+     * Provides the views that are animated by this animator.
+     */
+    public interface AnimatedViewsProvider {
+        List<View> getAnimatedViews();
+    }
+
+    /**
+     * Notified when a transition reached its target phase. Not called when the
+     * transition is interrupted by another transition or animation.
+     */
+    public interface TransitionListener {
+        void onTransitionEnd(float phase);
+    }
+
     public UIFrameViewAnimator() {
 
     }
@@ -72,8 +112,8 @@ public class UIFrameViewAnimator {
             animatorY.addUpdateListener(mListener);
         }
 
-        animatorX.start();
-        animatorY.start();
+        startAnimator(animatorX);
+        startAnimator(animatorY);
     }
 
     /**
@@ -93,7 +133,7 @@ public class UIFrameViewAnimator {
         animatorX.setInterpolator(easing);
         animatorX.setDuration(durationMillis);
         animatorX.addUpdateListener(mListener);
-        animatorX.start();
+        startAnimator(animatorX);
     }
 
     /**
@@ -113,7 +153,7 @@ public class UIFrameViewAnimator {
         animatorY.setInterpolator(easing);
         animatorY.setDuration(durationMillis);
         animatorY.addUpdateListener(mListener);
-        animatorY.start();
+        startAnimator(animatorY);
     }
 
     /**
@@ -154,8 +194,8 @@ public class UIFrameViewAnimator {
             animatorY.addUpdateListener(mListener);
         }
 
-        animatorX.start();
-        animatorY.start();
+        startAnimator(animatorX);
+        startAnimator(animatorY);
     }
 
     /**
@@ -175,7 +215,7 @@ public class UIFrameViewAnimator {
         animatorX.setInterpolator(Easing.getEasingFunctionFromOption(easing));
         animatorX.setDuration(durationMillis);
         animatorX.addUpdateListener(mListener);
-        animatorX.start();
+        startAnimator(animatorX);
     }
 
     /**
@@ -195,7 +235,7 @@ public class UIFrameViewAnimator {
         animatorY.setInterpolator(Easing.getEasingFunctionFromOption(easing));
         animatorY.setDuration(durationMillis);
         animatorY.addUpdateListener(mListener);
-        animatorY.start();
+        startAnimator(animatorY);
     }
 
     /**
@@ -231,8 +271,8 @@ public class UIFrameViewAnimator {
             animatorY.addUpdateListener(mListener);
         }
 
-        animatorX.start();
-        animatorY.start();
+        startAnimator(animatorX);
+        startAnimator(animatorY);
     }
 
     /**
@@ -250,7 +290,7 @@ public class UIFrameViewAnimator {
         ObjectAnimator animatorX = ObjectAnimator.ofFloat(this, "phaseX", 0f, 1f);
         animatorX.setDuration(durationMillis);
         animatorX.addUpdateListener(mListener);
-        animatorX.start();
+        startAnimator(animatorX);
     }
 
     /**
@@ -268,7 +308,228 @@ public class UIFrameViewAnimator {
         ObjectAnimator animatorY = ObjectAnimator.ofFloat(this, "phaseY", 0f, 1f);
         animatorY.setDuration(durationMillis);
         animatorY.addUpdateListener(mListener);
-        animatorY.start();
+        startAnimator(animatorY);
+    }
+
+    /**
+     * Animates the x-phase from its current value to the given target. If a
+     * transition is already running it is reversed / retargeted in place
+     * instead of restarting from 0, and its end listener is dropped.
+     *
+     * @param toPhase        target phase 0~1
+     * @param durationMillis duration of a full 0 to 1 transition, scaled by the remaining distance
+     * @param easing
+     * @param listener       called when the target is reached, may be null
+     */
+    public void transitionX(float toPhase, long durationMillis, Easing.EasingAnimation easing, TransitionListener listener) {
+        mTransitionX.start(toPhase, durationMillis, easing, listener);
+    }
+
+    /**
+     * Animates the y-phase from its current value to the given target. If a
+     * transition is already running it is reversed / retargeted in place
+     * instead of restarting from 0, and its end listener is dropped.
+     *
+     * @param toPhase        target phase 0~1
+     * @param durationMillis duration of a full 0 to 1 transition, scaled by the remaining distance
+     * @param easing
+     * @param listener       called when the target is reached, may be null
+     */
+    public void transitionY(float toPhase, long durationMillis, Easing.EasingAnimation easing, TransitionListener listener) {
+        mTransitionY.start(toPhase, durationMillis, easing, listener);
+    }
+
+    /**
+     * @return true if a transition of either phase is running
+     */
+    public boolean isTransitionRunning() {
+        return mTransitionX.isRunning() || mTransitionY.isRunning();
+    }
+
+    /**
+     * Cancels the running transitions, leaving the phases where they are. The
+     * end listeners are not called.
+     */
+    public void cancelTransitions() {
+        mTransitionX.cancel();
+        mTransitionY.cancel();
+    }
+
+    /**
+     * Enables or disables hardware layer promotion. When enabled, the views
+     * returned by the provider are rendered into hardware layers while any
+     * animation of this animator is running and restored to their previous
+     * layer type when the last animation ends or is cancelled. Only views that
+     * keep their size while animating are promoted, see {@link #STABLE_FRAMES}.
+     *
+     * @param provider the animated views, null disables promotion
+     */
+    public void setHardwareLayerPromotion(AnimatedViewsProvider provider) {
+        if (provider == null) {
+            mLayerPromotionListener.demoteAll();
+        }
+        mAnimatedViewsProvider = provider;
+    }
+
+    /**
+     * Starts the animator, attaching the layer promotion listener if enabled.
+     *
+     * @param animator
+     */
+    private void startAnimator(ObjectAnimator animator) {
+        // a regular animation takes over the phases, so stop fighting over them
+        if (animator != mTransitionX.mAnimator && animator != mTransitionY.mAnimator) {
+            cancelTransitions();
+        }
+        if (mAnimatedViewsProvider != null) {
+            animator.addListener(mLayerPromotionListener);
+            animator.addUpdateListener(mLayerPromotionListener);
+        }
+        animator.start();
+    }
+
+    /**
+     * A reversible transition of one phase. The animator is created once and
+     * retargeted on every start, so interrupting a transition never allocates
+     * a new animator and always continues from the current phase.
+     */
+    private class Transition extends AnimatorListenerAdapter {
+
+        private final String mProperty;
+        private final boolean mIsX;
+        private ObjectAnimator mAnimator;
+        private TransitionListener mTransitionListener;
+        private boolean mCanceled;
+
+        Transition(String property) {
+            mProperty = property;
+            mIsX = "phaseX".equals(property);
+        }
+
+        void start(float toPhase, long durationMillis, Easing.EasingAnimation easing, TransitionListener listener) {
+            cancel();
+            float fromPhase = mIsX ? mPhaseX : mPhaseY;
+            if (android.os.Build.VERSION.SDK_INT < 11 || fromPhase == toPhase || durationMillis <= 0) {
+                setPhase(toPhase);
+                if (listener != null) {
+                    listener.onTransitionEnd(toPhase);
+                }
+                return;
+            }
+            if (mAnimator == null) {
+                mAnimator = ObjectAnimator.ofFloat(UIFrameViewAnimator.this, mProperty, fromPhase, toPhase);
+                if (mListener != null) {
+                    mAnimator.addUpdateListener(mListener);
+                }
+                mAnimator.addListener(this);
+            } else {
+                mAnimator.setFloatValues(fromPhase, toPhase);
+            }
+            mAnimator.setInterpolator(Easing.getEasingFunctionFromOption(easing));
+            mAnimator.setDuration((long) (durationMillis * Math.abs(toPhase - fromPhase)));
+            mTransitionListener = listener;
+            mCanceled = false;
+            startAnimator(mAnimator);
+        }
+
+        boolean isRunning() {
+            return mAnimator != null && mAnimator.isRunning();
+        }
+
+        void cancel() {
+            mTransitionListener = null;
+            if (mAnimator != null && mAnimator.isStarted()) {
+                mCanceled = true;
+                mAnimator.cancel();
+            }
+        }
+
+        private void setPhase(float phase) {
+            if (mIsX) {
+                setPhaseX(phase);
+            } else {
+                setPhaseY(phase);
+            }
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            mCanceled = true;
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            TransitionListener listener = mTransitionListener;
+            mTransitionListener = null;
+            if (!mCanceled && listener != null) {
+                listener.onTransitionEnd(mIsX ? mPhaseX : mPhaseY);
+            }
+        }
+    }
+
+    /**
+     * Promotes the animated views once their size stayed the same for
+     * {@link #STABLE_FRAMES} frames and demotes them after the last running
+     * animator ended. A view that is resized while animating is demoted at once
+     * and not promoted again until the next animation run.
+     */
+    private class LayerPromotionListener extends AnimatorListenerAdapter implements AnimatorUpdateListener {
+
+        private int mRunningCount;
+        private final List<View> mCandidateViews = new ArrayList<>();
+        /** per candidate: last width, last height, stable frames, promoted (0/1) */
+        private final List<int[]> mCandidateStates = new ArrayList<>();
+
+        @Override
+        public void onAnimationStart(Animator animation) {
+            if (mRunningCount++ == 0 && mAnimatedViewsProvider != null) {
+                for (View view : mAnimatedViewsProvider.getAnimatedViews()) {
+                    if (view.getVisibility() != View.VISIBLE || view.getLayerType() != View.LAYER_TYPE_NONE) {
+                        continue;
+                    }
+                    mCandidateViews.add(view);
+                    mCandidateStates.add(new int[]{view.getWidth(), view.getHeight(), 0, 0});
+                }
+            }
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            for (int i = mCandidateViews.size() - 1; i >= 0; i--) {
+                View view = mCandidateViews.get(i);
+                int[] state = mCandidateStates.get(i);
+                if (view.getWidth() != state[0] || view.getHeight() != state[1]) {
+                    if (state[3] == 1) {
+                        view.setLayerType(View.LAYER_TYPE_NONE, null);
+                    }
+                    mCandidateViews.remove(i);
+                    mCandidateStates.remove(i);
+                } else if (state[3] == 0 && ++state[2] >= STABLE_FRAMES) {
+                    view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+                    state[3] = 1;
+                }
+            }
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            animation.removeListener(this);
+            ((ValueAnimator) animation).removeUpdateListener(this);
+            if (--mRunningCount <= 0) {
+                demoteAll();
+            }
+        }
+
+        void demoteAll() {
+            mRunningCount = 0;
+            for (int i = 0; i < mCandidateViews.size(); i++) {
+                if (mCandidateStates.get(i)[3] == 1) {
+                    mCandidateViews.get(i).setLayerType(View.LAYER_TYPE_NONE, null);
+                }
+            }
+            mCandidateViews.clear();
+            mCandidateStates.clear();
+        }
     }
 
     /**
@@ -0,0 +1,190 @@
+package com.xn.uiframe.builder;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.support.v4.content.ContextCompat;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.ListView;
+import android.widget.RelativeLayout;
+import android.widget.TextView;
+
+import com.xn.uiframe.PowerfulContainerLayout;
+import com.xn.uiframe.R;
+import com.xn.uiframe.interfaces.IViewBuilder;
+import com.xn.uiframe.widget.HeaderRelativeLayout;
+import com.xn.uiframe.widget.UIFrameRefreshViewLayout;
+
+/**
+ * <p>
+ * 框架内置布局的代码构造器: 每个界面都会加载ui_frame_container_layout,ui_frame_common_header_layout,
+ * ui_frame_center_listview_layout,ui_frame_refresh_head这几个布局,这里按布局文件一一对应地用代码构造,
+ * 省去主线程上的XML解析及反射查找构造函数的耗时,效果参见{@link com.xn.uiframe.utils.InflateBenchmark};
+ * <br>
+ * 修改上述布局文件时需要同步修改这里的代码; 如果应用在自已的资源中覆盖了这些布局,
+ * 需要调用{@link #setEnabled(boolean)}关闭代码构造,恢复使用LayoutInflater;
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class UIFrameViewBuilders {
+
+    private static boolean sEnabled = true;
+
+    /**
+     * 对应 R.layout.ui_frame_common_header_layout
+     */
+    public static final IViewBuilder COMMON_HEADER = new IViewBuilder() {
+        @Override
+        public View build(Context context, ViewGroup parent) {
+            return buildCommonHeader(context);
+        }
+    };
+
+    /**
+     * 对应 R.layout.ui_frame_center_listview_layout
+     */
+    public static final IViewBuilder CENTER_LIST_VIEW = new IViewBuilder() {
+        @Override
+        public View build(Context context, ViewGroup parent) {
+            return buildCenterListView(context);
+        }
+    };
+
+    private UIFrameViewBuilders() {
+    }
+
+    /**
+     * 设置是否使用代码构造内置布局,默认开启
+     *
+     * @param enabled false:使用LayoutInflater加载布局文件
+     */
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * 对应 R.layout.ui_frame_container_layout
+     */
+    public static PowerfulContainerLayout buildContainer(Context context) {
+        return new PowerfulContainerLayout(context);
+    }
+
+    /**
+     * 对应 R.layout.ui_frame_common_header_layout
+     */
+    public static HeaderRelativeLayout buildCommonHeader(Context context) {
+        HeaderRelativeLayout header = new HeaderRelativeLayout(context);
+        header.setLayoutParams(new ViewGroup.MarginLayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        header.setBackgroundColor(Color.WHITE);
+        header.setSplitLine(dp(context, 0.5f), Color.BLACK);
+
+        TextView left = buildHeaderText(context, R.id.ui_frame_header_left, 11f);
+        RelativeLayout.LayoutParams leftParams = (RelativeLayout.LayoutParams) left.getLayoutParams();
+        leftParams.leftMargin = (int) dp(context, 11f);
+        leftParams.addRule(RelativeLayout.ALIGN_PARENT_LEFT);
+        header.addView(left);
+
+        TextView center = buildHeaderText(context, R.id.ui_frame_header_center, 13f);
+        center.setText("标题");
+        ((RelativeLayout.LayoutParams) center.getLayoutParams()).addRule(RelativeLayout.CENTER_IN_PARENT);
+        header.addView(center);
+
+        TextView right = buildHeaderText(context, R.id.ui_frame_header_right, 13f);
+        RelativeLayout.LayoutParams rightParams = (RelativeLayout.LayoutParams) right.getLayoutParams();
+        rightParams.rightMargin = (int) dp(context, 10f);
+        rightParams.addRule(RelativeLayout.ALIGN_PARENT_RIGHT);
+        header.addView(right);
+        return header;
+    }
+
+    /**
+     * 对应头部文字的style: ui_frame_header_*_text_style
+     */
+    private static TextView buildHeaderText(Context context, int id, float drawablePaddingDp) {
+        TextView textView = new TextView(context);
+        textView.setId(id);
+        RelativeLayout.LayoutParams params = new RelativeLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, (int) dp(context, 50f));
+        params.bottomMargin = (int) dp(context, 1f);
+        textView.setLayoutParams(params);
+        textView.setBackgroundColor(Color.WHITE);
+        textView.setTextColor(Color.BLACK);
+        textView.setTextSize(TypedValue.COMPLEX_UNIT_SP, 15f);
+        textView.setCompoundDrawablePadding((int) dp(context, drawablePaddingDp));
+        textView.setGravity(Gravity.CENTER);
+        return textView;
+    }
+
+    /**
+     * 对应 R.layout.ui_frame_center_listview_layout
+     */
+    public static UIFrameRefreshViewLayout buildCenterListView(Context context) {
+        UIFrameRefreshViewLayout refreshLayout = new UIFrameRefreshViewLayout(context);
+        refreshLayout.setLayoutParams(new ViewGroup.MarginLayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+        ListView listView = new ListView(context);
+        listView.setId(R.id.ui_frame_center_list_view);
+        listView.setBackgroundColor(Color.WHITE);
+        listView.setFocusable(true);
+        refreshLayout.addView(listView, new ViewGroup.MarginLayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        refreshLayout.finishBuild();
+        return refreshLayout;
+    }
+
+    /**
+     * 对应 R.layout.ui_frame_refresh_head
+     */
+    public static RelativeLayout buildRefreshHead(Context context) {
+        RelativeLayout head = new RelativeLayout(context);
+        head.setId(R.id.head_view);
+        head.setLayoutParams(new ViewGroup.MarginLayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        head.setBackgroundColor(ContextCompat.getColor(context, R.color.ui_frame_light_blue));
+
+        RelativeLayout content = new RelativeLayout(context);
+        RelativeLayout.LayoutParams contentParams = new RelativeLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+        contentParams.addRule(RelativeLayout.CENTER_IN_PARENT);
+        contentParams.topMargin = (int) dp(context, 10f);
+        contentParams.bottomMargin = (int) dp(context, 10f);
+        head.addView(content, contentParams);
+
+        TextView status = new TextView(context);
+        status.setId(R.id.ui_frame_refresh_header_status_text);
+        status.setText(R.string.ui_frame_pull_to_refresh);
+        status.setTextColor(ContextCompat.getColor(context, R.color.ui_frame_white));
+        status.setTextSize(TypedValue.COMPLEX_UNIT_SP, 16f);
+        RelativeLayout.LayoutParams statusParams = new RelativeLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+        statusParams.addRule(RelativeLayout.CENTER_IN_PARENT);
+        content.addView(status, statusParams);
+
+        content.addView(buildRefreshIcon(context, R.id.ui_frame_pull_flag_icon, R.mipmap.ui_frame_pull_flag_icon, 20f, View.VISIBLE));
+        content.addView(buildRefreshIcon(context, R.id.ui_frame_loading_icon, R.mipmap.ui_frame_loading_icon, 20f, View.INVISIBLE));
+        content.addView(buildRefreshIcon(context, R.id.ui_frame_refresh_status_image, R.mipmap.ui_frame_refresh_succeed_icon, 8f, View.INVISIBLE));
+        return head;
+    }
+
+    private static ImageView buildRefreshIcon(Context context, int id, int background, float marginRightDp, int visibility) {
+        ImageView imageView = new ImageView(context);
+        imageView.setId(id);
+        if (background != 0) {
+            imageView.setBackgroundResource(background);
+        }
+        imageView.setVisibility(visibility);
+        RelativeLayout.LayoutParams params = new RelativeLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+        params.addRule(RelativeLayout.CENTER_VERTICAL);
+        params.addRule(RelativeLayout.LEFT_OF, R.id.ui_frame_refresh_header_status_text);
+        params.rightMargin = (int) dp(context, marginRightDp);
+        imageView.setLayoutParams(params);
+        return imageView;
+    }
+
+    private static float dp(Context context, float value) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, value, context.getResources().getDisplayMetrics());
+    }
+}
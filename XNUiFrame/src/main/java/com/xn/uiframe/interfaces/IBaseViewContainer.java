@@ -2,6 +2,8 @@ package com.xn.uiframe.interfaces;
 
 import android.view.View;
 
+import com.xn.uiframe.LayerStateSnapshot;
+
 /**
  * <p>
  * 容器接口定义，主要定义了一个创建视图的接口，
@@ -20,4 +22,32 @@ public interface IBaseViewContainer extends IViewCommonBehavior{
      * @return 返回创建的视图对象
      */
     View onCreateView();
+
+    /**
+     * 保存各层级的可见状态、动画进度、刷新开关及头部文字
+     * @return 层级状态快照
+     */
+    LayerStateSnapshot saveLayerState();
+
+    /**
+     * 恢复{@link #saveLayerState()}保存的层级状态,需要在视图创建之后调用
+     * @param state 层级状态快照,为null时忽略
+     */
+    void restoreLayerState(LayerStateSnapshot state);
+
+    /**
+     * 内存不足时释放CenterMask,FullScreen,Dialog层级中不可见的视图,再次显示时重新创建
+     * @return 本次估算释放的字节数
+     */
+    long releaseHiddenLayerViews();
+
+    /**
+     * @return 累计估算释放的字节数
+     */
+    long getReleasedLayerBytes();
+
+    /**
+     * 界面销毁时调用,归还中间视图从{@link com.xn.uiframe.utils.WebViewPool}中取出的WebView
+     */
+    void onDestroyView();
 }
@@ -6,7 +6,6 @@ import android.view.ViewGroup;
 
 import com.xn.uiframe.animation.Easing;
 
-import java.io.Serializable;
 import java.util.List;
 
 /**
@@ -23,7 +22,7 @@ import java.util.List;
  * </p>
  */
 
-public interface ILayoutManager<T> extends Comparable<T>, Serializable {
+public interface ILayoutManager<T> extends Comparable<T> {
     /**
      * @param layout          布局文件
      * @return 返回添加布局之后对应的View实例对象
@@ -83,7 +82,7 @@ public interface ILayoutManager<T> extends Comparable<T>, Serializable {
     int getLayer();
 
     /**
-     * 设置当前布局是否可见.
+     * 设置当前布局是否可见,层级中有多个视图时所有视图统一切换.
      *
      * @param visible true or false
      * @see android.view.View#VISIBLE
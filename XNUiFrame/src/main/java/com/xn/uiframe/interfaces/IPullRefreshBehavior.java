@@ -16,6 +16,27 @@ public interface IPullRefreshBehavior {
      */
     void stopLoadMore(boolean isSuccess);
 
+    /**
+     * 停止刷新,只有代数与当前刷新请求一致时才生效
+     * @param generation 刷新凭证的代数 {@link com.xn.uiframe.refreshlayout.RefreshToken#getGeneration()}
+     * @param isSuccess
+     * @return true:生效  false:结果已过期被丢弃
+     */
+    boolean stopRefresh(int generation, boolean isSuccess);
+
+    /**
+     * 停止加载更多,只有代数与当前加载请求一致时才生效
+     * @param generation 加载凭证的代数 {@link com.xn.uiframe.refreshlayout.RefreshToken#getGeneration()}
+     * @param isSuccess
+     * @return true:生效  false:结果已过期被丢弃
+     */
+    boolean stopLoadMore(int generation, boolean isSuccess);
+
+    /**
+     * 自动刷新,可以在第一次布局之前调用(例如onCreate中),头部动画会在布局完成后执行;
+     */
+    void autoRefresh();
+
     /**
      * 是否开启下拉刷新功能
      * @param enable true:开启  false:关闭
@@ -0,0 +1,22 @@
+package com.xn.uiframe.interfaces;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * 用代码构造视图的接口,替代LayoutInflater解析布局文件;
+ * 可以传给{@link com.xn.uiframe.layout.AbstractLayoutManager#addLayout(IViewBuilder)},
+ * 省去XML解析及反射查找构造函数的耗时;
+ */
+
+public interface IViewBuilder {
+    /**
+     * 构造视图,返回的视图还没有添加到parent中,但已经设置好了布局参数(MarginLayoutParams)
+     *
+     * @param context 上下文
+     * @param parent  视图将要添加到的父视图,可以为null
+     * @return 构造的视图
+     */
+    View build(Context context, ViewGroup parent);
+}
@@ -6,6 +6,7 @@ import android.support.annotation.ColorRes;
 import android.support.annotation.DrawableRes;
 
 import com.xn.uiframe.ElementView;
+import com.xn.uiframe.animation.Easing;
 import com.xn.uiframe.refreshlayout.OnRefreshListener;
 
 /**
@@ -22,7 +23,7 @@ public interface IViewCommonBehavior extends
         IPullRefreshBehavior{
 
     /**
-     * 设置界面视图元素是否可见
+     * 设置界面视图元素是否可见,该层级有多个视图时所有视图统一切换
      *
      * @param elementCategory 界面视图类型
      * @param visible         true:可见  false:不可见
@@ -37,6 +38,34 @@ public interface IViewCommonBehavior extends
      */
     boolean isElementViewVisible(ElementView elementCategory);
 
+    /**
+     * 带过渡动画地显示或隐藏界面元素,过渡途中再次调用会从当前进度反向过渡
+     *
+     * @param elementCategory 界面视图类型
+     * @param visible         true:可见  false:不可见
+     * @param easing          动画效果类型
+     * @param duration        完整过渡的时间 ms
+     */
+    void setElementViewVisible(ElementView elementCategory, boolean visible, Easing.EasingAnimation easing, long duration);
+
+    /**
+     * 设置某个界面元素中单个视图是否可见,视图需要通过{@link com.xn.uiframe.layout.AbstractLayoutManager#addLayout(int, int)}添加
+     *
+     * @param elementCategory 界面视图类型
+     * @param handle          视图标识
+     * @param visible         true:可见  false:不可见
+     */
+    void setElementViewVisible(ElementView elementCategory, int handle, boolean visible);
+
+    /**
+     * 返回某个界面元素中单个视图的可见状态
+     *
+     * @param elementCategory 界面视图类型
+     * @param handle          视图标识
+     * @return true:可见  false:不可见
+     */
+    boolean isElementViewVisible(ElementView elementCategory, int handle);
+
     /**
      * 设置容器颜色
      *
@@ -56,4 +85,11 @@ public interface IViewCommonBehavior extends
      * @param listener
      */
     void setOnRefreshListener(OnRefreshListener listener);
+
+    /**
+     * 开启或关闭滚动联动折叠: Header,Top层随中间列表的滚动平移折叠,滚动过程中不重新布局
+     *
+     * @param enable true:开启 false:关闭
+     */
+    void setScrollLinkedCollapse(boolean enable);
 }
@@ -3,17 +3,25 @@ package com.xn.uiframe.layout;
 import android.animation.ValueAnimator;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
 import com.xn.uiframe.PowerfulContainerLayout;
+import com.xn.uiframe.R;
 import com.xn.uiframe.animation.Easing;
 import com.xn.uiframe.animation.UIFrameViewAnimator;
+import com.xn.uiframe.exception.UIFrameLayoutAlreadyExistException;
 import com.xn.uiframe.interfaces.IContainerManager;
 import com.xn.uiframe.interfaces.ILayoutManager;
+import com.xn.uiframe.interfaces.IViewBuilder;
+import com.xn.uiframe.utils.ViewMemoryReleaser;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -55,6 +63,61 @@ public abstract class AbstractLayoutManager implements ILayoutManager<ILayoutMan
      */
     protected List<View> mViewCollections = new ArrayList<>();
 
+    /**
+     * 通过{@link AbstractLayoutManager#addLayout(int, int)}添加的视图,按调用方指定的handle索引
+     */
+    protected SparseArray<View> mViewHandles = new SparseArray<>();
+
+    /**
+     * 内存不足时被释放的视图,按释放的先后顺序排列
+     */
+    private List<ReleasedView> mReleasedViews = new ArrayList<>();
+
+    private long mReleasedBytes;
+    private int mReleasedViewCount;
+    private int mRecreatedViewCount;
+
+    private OnViewRecreatedListener mOnViewRecreatedListener;
+
+    /**
+     * 通过{@link #addLayout(int)}添加,没有handle的视图重新创建时回调的handle;
+     * 调用{@link #addLayout(int, int)}时不能使用该值作为handle
+     */
+    public static final int NO_HANDLE = Integer.MIN_VALUE;
+
+    /**
+     * 被释放的视图重新创建后的回调,用于重新设置视图中的动态内容
+     */
+    public interface OnViewRecreatedListener {
+        /**
+         * @param handle 视图标识,通过{@link #addLayout(int)}添加的视图为{@link #NO_HANDLE},可以按视图的id区分
+         * @param view   重新创建的视图
+         */
+        void onViewRecreated(int handle, View view);
+    }
+
+    /**
+     * 被释放的视图: 重新创建所需的布局文件,handle及释放前在mViewCollections中的位置
+     */
+    private static class ReleasedView {
+        final int handle;
+        final int layout;
+        final int index;
+
+        ReleasedView(int handle, int layout, int index) {
+            this.handle = handle;
+            this.layout = layout;
+            this.index = index;
+        }
+    }
+
+    private static final Comparator<ReleasedView> RELEASED_INDEX_COMPARATOR = new Comparator<ReleasedView>() {
+        @Override
+        public int compare(ReleasedView lhs, ReleasedView rhs) {
+            return lhs.index < rhs.index ? -1 : (lhs.index == rhs.index ? 0 : 1);
+        }
+    };
+
     /**
      * 定义UI框架中视图有哪些层级，决定视图在容器中绘制的先后顺序.
      */
@@ -124,8 +187,8 @@ public abstract class AbstractLayoutManager implements ILayoutManager<ILayoutMan
             int basicWidth = containerWidth - leftMargin - rightMargin;
             int basicHeight = containerHeight - topMargin - bottomMarin;
 
-            int basicWidthSpec = View.MeasureSpec.makeMeasureSpec((int) (basicWidth * this.mUIFrameViewAnimator.getPhaseX()), View.MeasureSpec.EXACTLY);
-            int basicHeightSpec = View.MeasureSpec.makeMeasureSpec((int) (basicHeight * this.mUIFrameViewAnimator.getPhaseY()), View.MeasureSpec.EXACTLY);
+            int basicWidthSpec = View.MeasureSpec.makeMeasureSpec((int) (basicWidth * getPhaseX(view)), View.MeasureSpec.EXACTLY);
+            int basicHeightSpec = View.MeasureSpec.makeMeasureSpec((int) (basicHeight * getPhaseY(view)), View.MeasureSpec.EXACTLY);
             mContainerManager.measureChild(view, basicWidthSpec, basicHeightSpec);
         }
 
@@ -154,34 +217,476 @@ public abstract class AbstractLayoutManager implements ILayoutManager<ILayoutMan
         if(mViewCollections.size() > 0 ){
             return null;
         }
+        View view = inflateLayout(layout);
+        mViewCollections.add(view);
+        return view;
+    }
+
+    /**
+     * 解析布局文件,并在视图上记录布局文件,视图被释放后据此重新创建;子类重写{@link #addLayout(int)}时通过该方法解析
+     *
+     * @param layout 布局文件
+     * @return 解析出的视图,尚未加入mViewCollections
+     */
+    protected View inflateLayout(@LayoutRes int layout) {
+        PowerfulContainerLayout powerfulContainer = (PowerfulContainerLayout) mContainerManager;
+        View view = LayoutInflater.from(powerfulContainer.getContext()).inflate(layout, powerfulContainer, false);
+        view.setTag(R.id.ui_frame_layout_res, layout);
+        return view;
+    }
+
+    /**
+     * 用代码构造器添加视图,省去布局文件的解析耗时;
+     * Header,Top,Center,Bottom层级只能添加一个视图,CenterMask,FullScreen,Dialog层级可以添加多个;
+     *
+     * @param builder 视图构造器
+     * @return 添加后的视图,该层级不能再添加视图时返回null
+     */
+    public View addLayout(IViewBuilder builder) {
+        if (mLayer < Layer.LAYER_PART_OF_BASIC_CENTER_MASK && mViewCollections.size() > 0) {
+            return null;
+        }
         PowerfulContainerLayout powerfulContainer = (PowerfulContainerLayout) mContainerManager;
-        View  view = LayoutInflater.from(powerfulContainer.getContext()).inflate(layout, powerfulContainer, false);
+        View view = builder.build(powerfulContainer.getContext(), powerfulContainer);
         mViewCollections.add(view);
         return view;
     }
 
+    /**
+     * 添加一个布局并指定handle,之后可以通过handle直接控制该视图,不需要调用方自已保存视图对象;
+     * 适用于CenterMask,FullScreen,Dialog等一个层级有多个视图的情况;
+     * Header,Top,Center,Bottom层级只能有一个视图,已经有视图时抛出{@link UIFrameLayoutAlreadyExistException};
+     *
+     * @param layout 需要添加的布局文件
+     * @param handle 调用方指定的视图标识,同一层级内唯一,不能是{@link #NO_HANDLE}
+     * @return 添加后的视图
+     */
+    public View addLayout(@LayoutRes int layout, int handle) {
+        if (mLayer < Layer.LAYER_PART_OF_BASIC_CENTER_MASK && mViewCollections.size() > 0) {
+            throw new UIFrameLayoutAlreadyExistException("Header,Top,Center,Bottom层级只能添加一个视图,该层级已经存在视图.");
+        }
+        View view = addLayout(layout);
+        if (view != null) {
+            mViewHandles.put(handle, view);
+        }
+        return view;
+    }
+
+    /**
+     * @param handle 视图标识
+     * @return 对应的视图,视图已被释放时重新创建,不存在返回null
+     */
+    public View getView(int handle) {
+        View view = mViewHandles.get(handle);
+        if (view == null) {
+            for (int i = 0; i < mReleasedViews.size(); i++) {
+                if (mReleasedViews.get(i).handle == handle) {
+                    return recreateReleasedView(mReleasedViews.get(i));
+                }
+            }
+        }
+        return view;
+    }
+
+    /**
+     * 释放当前层级中不可见的视图: 从容器中移除并断开对背景及图片的引用,显示该层级或通过handle访问该视图时重新创建;
+     * 只对CenterMask,FullScreen,Dialog层级中通过{@link #addLayout(int)}或{@link #addLayout(int, int)}添加的视图生效,
+     * 通过{@link IViewBuilder}添加的视图没有布局文件,不会被释放;
+     * 调用方持有的旧视图对象在释放后不再有效,需要通过{@link #setOnViewRecreatedListener(OnViewRecreatedListener)}重新设置内容;
+     *
+     * @return 估算释放的字节数
+     */
+    public long releaseHiddenViews() {
+        if (mLayer < Layer.LAYER_PART_OF_BASIC_CENTER_MASK) {
+            return 0;
+        }
+        long bytes = 0;
+        for (int i = mViewCollections.size() - 1; i >= 0; i--) {
+            View view = mViewCollections.get(i);
+            Object layout = view.getTag(R.id.ui_frame_layout_res);
+            if (view.getVisibility() == View.VISIBLE || !(layout instanceof Integer)) {
+                continue;
+            }
+            UIFrameViewAnimator animator = (UIFrameViewAnimator) view.getTag(R.id.ui_frame_handle_animator);
+            if (animator != null && animator.isTransitionRunning()) {
+                continue;
+            }
+            int handleIndex = mViewHandles.indexOfValue(view);
+            int handle = handleIndex < 0 ? NO_HANDLE : mViewHandles.keyAt(handleIndex);
+            if (handleIndex >= 0) {
+                mViewHandles.removeAt(handleIndex);
+            }
+            mViewCollections.remove(i);
+            ((ViewGroup) mContainerManager).removeView(view);
+            bytes += ViewMemoryReleaser.release(view);
+            mReleasedViews.add(new ReleasedView(handle, (Integer) layout, i));
+            mReleasedViewCount++;
+        }
+        mReleasedBytes += bytes;
+        return bytes;
+    }
+
+    /**
+     * 重新创建被释放的视图,放回原来的位置,保持不可见状态
+     */
+    private View recreateReleasedView(ReleasedView released) {
+        mReleasedViews.remove(released);
+        View view = addLayout(released.layout);
+        if (view == null) {
+            return null;
+        }
+        view.setVisibility(View.GONE);
+        mViewCollections.remove(view);
+        int index = Math.min(released.index, mViewCollections.size());
+        mViewCollections.add(index, view);
+        if (released.handle != NO_HANDLE) {
+            mViewHandles.put(released.handle, view);
+        }
+        ((ViewGroup) mContainerManager).addView(view, containerIndexOf(index));
+        mRecreatedViewCount++;
+        if (mOnViewRecreatedListener != null) {
+            mOnViewRecreatedListener.onViewRecreated(released.handle, view);
+        }
+        return view;
+    }
+
+    /**
+     * 按释放前的位置从前往后重新创建被释放的视图,保证每个视图都能放回原来的位置
+     *
+     * @param includeHandles true:创建所有视图 false:只创建没有handle的视图
+     */
+    private void recreateReleasedViews(boolean includeHandles) {
+        List<ReleasedView> releasedViews = new ArrayList<>(mReleasedViews);
+        Collections.sort(releasedViews, RELEASED_INDEX_COMPARATOR);
+        for (ReleasedView released : releasedViews) {
+            if (includeHandles || released.handle == NO_HANDLE) {
+                recreateReleasedView(released);
+            }
+        }
+    }
+
+    /**
+     * 计算mViewCollections中第index个视图在容器中的位置,保持层级的绘制顺序
+     */
+    private int containerIndexOf(int index) {
+        ViewGroup container = (ViewGroup) mContainerManager;
+        if (index > 0) {
+            return container.indexOfChild(mViewCollections.get(index - 1)) + 1;
+        }
+        if (mViewCollections.size() > 1) {
+            return container.indexOfChild(mViewCollections.get(1));
+        }
+        /**层级中没有其它视图时,放在更高层级的第一个视图之前**/
+        int position = container.getChildCount();
+        List<ILayoutManager<ILayoutManager>> managers = mContainerManager.layoutManagers();
+        for (int i = 0; i < managers.size(); i++) {
+            ILayoutManager<ILayoutManager> manager = managers.get(i);
+            if (manager.getLayer() <= mLayer) {
+                continue;
+            }
+            for (View other : manager.getContentViews()) {
+                int otherIndex = container.indexOfChild(other);
+                if (otherIndex >= 0) {
+                    position = Math.min(position, otherIndex);
+                }
+            }
+        }
+        return position;
+    }
+
+    public void setOnViewRecreatedListener(OnViewRecreatedListener listener) {
+        this.mOnViewRecreatedListener = listener;
+    }
+
+    /**
+     * @return 累计估算释放的字节数
+     */
+    public long getReleasedBytes() {
+        return mReleasedBytes;
+    }
+
+    public int getReleasedViewCount() {
+        return mReleasedViewCount;
+    }
+
+    public int getRecreatedViewCount() {
+        return mRecreatedViewCount;
+    }
+
+    /**
+     * 设置层级中单个视图是否可见;
+     * FullScreen,Dialog层的视图不影响其它层级的位置,已经布局过的视图隐藏时设置为INVISIBLE,
+     * 容器大小不变时再次显示不需要重新布局整个容器;
+     *
+     * @param handle  视图标识
+     * @param visible true:可见 false:不可见
+     */
+    public void setViewVisible(int handle, boolean visible) {
+        /**已经释放的视图隐藏时不需要处理,显示时重新创建**/
+        View view = visible ? getView(handle) : mViewHandles.get(handle);
+        if (view == null) {
+            return;
+        }
+        /**不带动画地切换时结束正在执行的过渡,避免过渡结束时覆盖这次的状态**/
+        UIFrameViewAnimator animator = (UIFrameViewAnimator) view.getTag(R.id.ui_frame_handle_animator);
+        if (animator != null && animator.isTransitionRunning()) {
+            animator.cancelTransitions();
+            animator.setPhaseY(1f);
+        }
+        boolean overlay = mLayer >= Layer.LAYER_FULL_SCREEN_EXTRA;
+        if (!visible) {
+            boolean laidOut = view.getVisibility() == View.VISIBLE && view.getWidth() > 0;
+            view.setVisibility(overlay && laidOut ? View.INVISIBLE : View.GONE);
+            return;
+        }
+        if (view.getVisibility() == View.INVISIBLE && !isLaidOutForContainer(view)) {
+            mContainerManager.requestLayout();
+        }
+        view.setVisibility(View.VISIBLE);
+    }
+
+    /**
+     * 层级中没有handle的视图的可见状态,按添加顺序排列,用于界面重建时恢复状态
+     *
+     * @return 可见状态数组
+     */
+    public int[] getViewVisibilities() {
+        /**已经释放的视图按重新创建时的位置插入,保持添加顺序,可见状态为GONE**/
+        List<Object> views = new ArrayList<Object>(mViewCollections);
+        List<ReleasedView> releasedViews = new ArrayList<>(mReleasedViews);
+        Collections.sort(releasedViews, RELEASED_INDEX_COMPARATOR);
+        for (ReleasedView released : releasedViews) {
+            views.add(Math.min(released.index, views.size()), released);
+        }
+        int count = 0;
+        int[] visibilities = new int[views.size()];
+        for (Object view : views) {
+            if (view instanceof ReleasedView) {
+                if (((ReleasedView) view).handle == NO_HANDLE) {
+                    visibilities[count++] = View.GONE;
+                }
+            } else if (mViewHandles.indexOfValue((View) view) < 0) {
+                visibilities[count++] = ((View) view).getVisibility();
+            }
+        }
+        int[] result = new int[count];
+        System.arraycopy(visibilities, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * 通过handle添加的视图的可见状态,内存不足时已经释放的视图为GONE,用于界面重建时恢复状态
+     *
+     * @return handle -> 可见状态
+     */
+    public SparseIntArray getHandleVisibilities() {
+        SparseIntArray visibilities = new SparseIntArray(mViewHandles.size() + mReleasedViews.size());
+        for (int i = 0; i < mViewHandles.size(); i++) {
+            visibilities.put(mViewHandles.keyAt(i), mViewHandles.valueAt(i).getVisibility());
+        }
+        for (ReleasedView released : mReleasedViews) {
+            if (released.handle != NO_HANDLE) {
+                visibilities.put(released.handle, View.GONE);
+            }
+        }
+        return visibilities;
+    }
+
+    /**
+     * 按{@link #getViewVisibilities()},{@link #getHandleVisibilities()}保存的结果逐个恢复视图的可见状态,
+     * 不触发子类在{@link #setVisibility(int)}中附加的动画;
+     *
+     * @param visibilities       没有handle的视图的可见状态,按添加顺序排列
+     * @param handleVisibilities handle -> 可见状态
+     */
+    public void restoreViewVisibilities(int[] visibilities, SparseIntArray handleVisibilities) {
+        if (mUIFrameViewAnimator.isTransitionRunning()) {
+            mUIFrameViewAnimator.cancelTransitions();
+            mUIFrameViewAnimator.setPhaseY(1f);
+        }
+        /**没有handle的视图按位置恢复,需要先放回已经释放的视图**/
+        if (visibilities != null && visibilities.length > 0) {
+            recreateReleasedViews(false);
+        }
+        int index = 0;
+        for (View view : mViewCollections) {
+            if (mViewHandles.indexOfValue(view) >= 0) {
+                continue;
+            }
+            if (visibilities != null && index < visibilities.length) {
+                view.setVisibility(visibilities[index]);
+            }
+            index++;
+        }
+        if (handleVisibilities != null) {
+            for (int i = 0; i < handleVisibilities.size(); i++) {
+                setViewVisible(handleVisibilities.keyAt(i), handleVisibilities.valueAt(i) == View.VISIBLE);
+            }
+        }
+    }
+
+    /**
+     * 带过渡动画地显示或隐藏单个视图: 从视图当前的Y轴动画进度开始向1(显示)或0(隐藏)过渡,
+     * 过渡途中再次调用会从当前进度反向,复用正在执行的动画对象; 隐藏结束时视图设置为GONE,不再参与测量;
+     *
+     * @param handle   视图标识
+     * @param visible  true:显示 false:隐藏
+     * @param easing   动画效果类型
+     * @param duration 完整过渡(0~1)的时间 ms,实际时间按剩余进度计算
+     */
+    public void setViewVisible(int handle, boolean visible, Easing.EasingAnimation easing, long duration) {
+        final View view = visible ? getView(handle) : mViewHandles.get(handle);
+        if (view == null) {
+            return;
+        }
+        final UIFrameViewAnimator animator = handleAnimatorOf(handle);
+        if (visible) {
+            if (view.getVisibility() != View.VISIBLE) {
+                /**从隐藏状态开始显示,进度从0开始**/
+                animator.cancelTransitions();
+                animator.setPhaseY(0f);
+                setViewVisible(handle, true);
+            }
+            animator.transitionY(1f, duration, easing, null);
+        } else if (view.getVisibility() == View.VISIBLE) {
+            animator.transitionY(0f, duration, easing, new UIFrameViewAnimator.TransitionListener() {
+                @Override
+                public void onTransitionEnd(float phase) {
+                    view.setVisibility(View.GONE);
+                    /**恢复进度,之后不带动画地显示时按完整大小测量**/
+                    animator.setPhaseY(1f);
+                }
+            });
+        }
+    }
+
+    /**
+     * @param handle 视图标识
+     * @return 视图是否可见
+     */
+    public boolean isViewVisible(int handle) {
+        View view = mViewHandles.get(handle);
+        return view != null && view.getVisibility() == View.VISIBLE;
+    }
+
+    /**
+     * 对层级中单个视图进行X轴动画,视图的动画进度与层级的动画进度相乘
+     *
+     * @param handle   视图标识
+     * @param easing   动画效果类型
+     * @param duration 时间 ms
+     */
+    public void animateX(int handle, Easing.EasingAnimation easing, long duration) {
+        UIFrameViewAnimator animator = handleAnimatorOf(handle);
+        if (animator != null) {
+            animator.animateX(duration, easing);
+        }
+    }
+
+    /**
+     * 对层级中单个视图进行Y轴动画,视图的动画进度与层级的动画进度相乘
+     *
+     * @param handle   视图标识
+     * @param easing   动画效果类型
+     * @param duration 时间 ms
+     */
+    public void animateY(int handle, Easing.EasingAnimation easing, long duration) {
+        UIFrameViewAnimator animator = handleAnimatorOf(handle);
+        if (animator != null) {
+            animator.animateY(duration, easing);
+        }
+    }
+
+    private UIFrameViewAnimator handleAnimatorOf(int handle) {
+        View view = mViewHandles.get(handle);
+        if (view == null) {
+            return null;
+        }
+        UIFrameViewAnimator animator = (UIFrameViewAnimator) view.getTag(R.id.ui_frame_handle_animator);
+        if (animator == null) {
+            animator = new UIFrameViewAnimator(new ViewAnimateListener());
+            view.setTag(R.id.ui_frame_handle_animator, animator);
+        }
+        return animator;
+    }
+
+    /**
+     * 获得某个视图的X轴动画进度: 层级动画进度 * 视图自身的动画进度
+     */
+    public float getPhaseX(View view) {
+        UIFrameViewAnimator animator = (UIFrameViewAnimator) view.getTag(R.id.ui_frame_handle_animator);
+        return animator == null ? mUIFrameViewAnimator.getPhaseX() : mUIFrameViewAnimator.getPhaseX() * animator.getPhaseX();
+    }
+
+    /**
+     * 获得某个视图的Y轴动画进度: 层级动画进度 * 视图自身的动画进度
+     */
+    public float getPhaseY(View view) {
+        UIFrameViewAnimator animator = (UIFrameViewAnimator) view.getTag(R.id.ui_frame_handle_animator);
+        return animator == null ? mUIFrameViewAnimator.getPhaseY() : mUIFrameViewAnimator.getPhaseY() * animator.getPhaseY();
+    }
+
+    /**
+     * INVISIBLE的视图保留了上一次布局的位置,检查该位置是否与当前容器大小一致
+     */
+    private boolean isLaidOutForContainer(View view) {
+        if (view.getWidth() == 0 || getPhaseX(view) != 1f || getPhaseY(view) != 1f) {
+            return false;
+        }
+        View container = (View) mContainerManager;
+        ViewGroup.MarginLayoutParams params = (ViewGroup.MarginLayoutParams) view.getLayoutParams();
+        return view.getWidth() == container.getWidth() - params.leftMargin - params.rightMargin
+                && view.getHeight() == container.getHeight() - params.topMargin - params.bottomMargin;
+    }
+
+    /**
+     * 层级的高度为所有可见视图高度的并集(同一层级的视图从同一位置开始布局),没有可见视图时返回第一个视图的高度
+     */
     @Override
     public int getMeasuredHeight() {
-        for(View view:mViewCollections){
-            return view.getMeasuredHeight();
+        int height = -1;
+        for (int i = 0; i < mViewCollections.size(); i++) {
+            View view = mViewCollections.get(i);
+            if (view.getVisibility() == View.VISIBLE) {
+                height = Math.max(height, view.getMeasuredHeight());
+            }
         }
-        return 0;
+        if (height < 0) {
+            return mViewCollections.isEmpty() ? 0 : mViewCollections.get(0).getMeasuredHeight();
+        }
+        return height;
     }
 
+    /**
+     * 层级的宽度为所有可见视图宽度的并集,没有可见视图时返回第一个视图的宽度
+     */
     @Override
     public int getMeasuredWidth() {
-        for(View view:mViewCollections){
-            return view.getMeasuredWidth();
+        int width = -1;
+        for (int i = 0; i < mViewCollections.size(); i++) {
+            View view = mViewCollections.get(i);
+            if (view.getVisibility() == View.VISIBLE) {
+                width = Math.max(width, view.getMeasuredWidth());
+            }
         }
-        return 0;
+        if (width < 0) {
+            return mViewCollections.isEmpty() ? 0 : mViewCollections.get(0).getMeasuredWidth();
+        }
+        return width;
     }
 
+    /**
+     * 返回第一个可见视图的布局参数,没有可见视图时返回第一个视图的布局参数
+     */
     @Override
     public ViewGroup.MarginLayoutParams getMarginLayoutParams() {
-        for(View view:mViewCollections){
-            return (ViewGroup.MarginLayoutParams)view.getLayoutParams();
+        for (int i = 0; i < mViewCollections.size(); i++) {
+            View view = mViewCollections.get(i);
+            if (view.getVisibility() == View.VISIBLE) {
+                return (ViewGroup.MarginLayoutParams) view.getLayoutParams();
+            }
         }
-        return null;
+        return mViewCollections.isEmpty() ? null : (ViewGroup.MarginLayoutParams) mViewCollections.get(0).getLayoutParams();
     }
 
     @Override
@@ -191,14 +696,29 @@ public abstract class AbstractLayoutManager implements ILayoutManager<ILayoutMan
 
     @Override
     public void setVisibility(int visible) {
-        //当该层级只有一个视图的时候，可以调用该方法;如果有多个层级视图，则在初始化的时候持有返回的对象，再进行操控;
-        for(View view:mViewCollections) {
-            if(view.getVisibility() == View.VISIBLE && visible == View.GONE) {
-                view.setVisibility(visible);
-                break;
-            }else if(view.getVisibility() == View.GONE && visible == View.VISIBLE){
+        /**不带动画地切换时结束正在执行的过渡,避免过渡结束时覆盖这次的状态**/
+        if (mUIFrameViewAnimator.isTransitionRunning()) {
+            mUIFrameViewAnimator.cancelTransitions();
+            mUIFrameViewAnimator.setPhaseY(1f);
+        }
+        applyVisibility(visible);
+    }
+
+    /**
+     * 切换层级视图的可见状态,不触发子类在{@link #setVisibility(int)}中附加的动画
+     */
+    private void applyVisibility(int visible) {
+        //层级中的所有视图统一切换;单独控制其中一个视图请通过handle添加,再调用setViewVisible(handle, visible);
+        for (View view : mViewCollections) {
+            if (view.getVisibility() != visible) {
                 view.setVisibility(visible);
-                break;
+            }
+        }
+        /**显示整个层级时,重新创建内存不足时释放的视图**/
+        if (visible == View.VISIBLE && !mReleasedViews.isEmpty()) {
+            recreateReleasedViews(true);
+            for (View view : mViewCollections) {
+                view.setVisibility(View.VISIBLE);
             }
         }
     }
@@ -273,6 +793,81 @@ public abstract class AbstractLayoutManager implements ILayoutManager<ILayoutMan
         this.animateY(easing, yDuration);
     }
 
+    /**
+     * 带过渡动画地显示或隐藏整个层级: 从层级当前的Y轴动画进度开始向1(显示)或0(隐藏)过渡,
+     * 过渡途中再次调用会从当前进度反向,而不是从0重新开始; 隐藏结束时视图设置为GONE,不再参与测量;
+     *
+     * @param visible  {@link View#VISIBLE} 或 {@link View#GONE}
+     * @param easing   动画效果类型
+     * @param duration 完整过渡(0~1)的时间 ms,实际时间按剩余进度计算
+     */
+    public void setVisibility(int visible, Easing.EasingAnimation easing, long duration) {
+        if (visible == View.VISIBLE) {
+            if (getVisibility() != View.VISIBLE) {
+                /**从隐藏状态开始显示,进度从0开始**/
+                mUIFrameViewAnimator.cancelTransitions();
+                mUIFrameViewAnimator.setPhaseY(0f);
+                applyVisibility(View.VISIBLE);
+            }
+            mUIFrameViewAnimator.transitionY(1f, duration, easing, null);
+        } else if (getVisibility() == View.VISIBLE) {
+            mUIFrameViewAnimator.transitionY(0f, duration, easing, mHideTransitionListener);
+        }
+    }
+
+    /**
+     * 隐藏过渡结束: 层级视图设置为GONE,并恢复进度,之后不带动画地显示时按完整大小测量
+     */
+    private final UIFrameViewAnimator.TransitionListener mHideTransitionListener = new UIFrameViewAnimator.TransitionListener() {
+        @Override
+        public void onTransitionEnd(float phase) {
+            applyVisibility(View.GONE);
+            mUIFrameViewAnimator.setPhaseY(1f);
+        }
+    };
+
+    /**
+     * 设置动画期间是否把当前层级的视图提升为硬件层,动画结束或取消后恢复;
+     * 层级的动画进度会改变视图的测量大小,大小变化时硬件层需要重新分配和绘制,反而更慢,
+     * 所以只有动画期间大小保持不变的视图才会被提升,大小一旦变化立即恢复为普通绘制;
+     *
+     * @param enable true:提升为硬件层 false:不提升
+     */
+    public void setHardwareLayerDuringAnimation(boolean enable) {
+        this.mUIFrameViewAnimator.setHardwareLayerPromotion(enable ? new UIFrameViewAnimator.AnimatedViewsProvider() {
+            @Override
+            public List<View> getAnimatedViews() {
+                return mViewCollections;
+            }
+        } : null);
+    }
+
+    /**
+     * @return 当前X轴动画进度 0~1
+     */
+    public float getPhaseX() {
+        return this.mUIFrameViewAnimator.getPhaseX();
+    }
+
+    /**
+     * @return 当前Y轴动画进度 0~1
+     */
+    public float getPhaseY() {
+        return this.mUIFrameViewAnimator.getPhaseY();
+    }
+
+    /**
+     * 直接设置动画进度,用于界面重建时恢复状态
+     *
+     * @param phaseX X轴动画进度 0~1
+     * @param phaseY Y轴动画进度 0~1
+     */
+    public void setPhase(float phaseX, float phaseY) {
+        this.mUIFrameViewAnimator.setPhaseX(phaseX);
+        this.mUIFrameViewAnimator.setPhaseY(phaseY);
+        mContainerManager.requestLayout();
+    }
+
     class ViewAnimateListener implements ValueAnimator.AnimatorUpdateListener {
 
         @Override
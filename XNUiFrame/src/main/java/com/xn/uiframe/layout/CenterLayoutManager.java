@@ -1,20 +1,31 @@
 package com.xn.uiframe.layout;
 
+import android.content.Context;
 import android.support.annotation.LayoutRes;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.webkit.WebView;
 import android.widget.BaseAdapter;
 import android.widget.ListView;
 
 import com.xn.uiframe.PowerfulContainerLayout;
 import com.xn.uiframe.R;
+import com.xn.uiframe.builder.UIFrameViewBuilders;
 import com.xn.uiframe.exception.UIFrameLayoutAlreadyExistException;
 import com.xn.uiframe.interfaces.ICompanionViewManager;
 import com.xn.uiframe.interfaces.IContainerManager;
 import com.xn.uiframe.interfaces.ILayoutManager;
 import com.xn.uiframe.interfaces.IPullRefreshBehavior;
+import com.xn.uiframe.interfaces.IViewBuilder;
+import com.xn.uiframe.refreshlayout.OnContentReadyListener;
 import com.xn.uiframe.refreshlayout.OnRefreshListener;
+import com.xn.uiframe.refreshlayout.PageSnapshotAdapter;
+import com.xn.uiframe.utils.PageSnapshotStore;
+import com.xn.uiframe.utils.WebViewPool;
 import com.xn.uiframe.widget.UIFrameRefreshViewLayout;
 
 import java.util.List;
@@ -77,6 +88,10 @@ public class CenterLayoutManager extends AbstractLayoutManager implements
 
     private ListView mListView;
 
+    private RecyclerView mRecyclerView;
+
+    private WebView mWebView;
+
     /**
      * 普通类型，不带pull refresh功能
      */
@@ -85,6 +100,72 @@ public class CenterLayoutManager extends AbstractLayoutManager implements
      * 带pull refresh功能，带list view
      */
     public static final int CENTER_TYPE_PULL_LIST_VIEW = 0x102;
+    /**
+     * 带pull refresh功能，带recycler view,宿主Activity开启共享时多个Fragment会共享行视图池
+     */
+    public static final int CENTER_TYPE_PULL_RECYCLER_VIEW = 0x103;
+    /**
+     * 带pull refresh功能，带web view,WebView从{@link WebViewPool}中取出,界面销毁时归还
+     */
+    public static final int CENTER_TYPE_PULL_WEB_VIEW = 0x104;
+
+    /**
+     * 是否开启滚动联动折叠: Header,Top层随中间列表的滚动向上平移折叠,中间视图按完整高度只测量一次,
+     * 滚动过程中只改变平移,不重新测量和布局
+     */
+    private boolean mScrollLinkedCollapse;
+
+    /**
+     * 当前折叠的距离 px
+     */
+    private int mCollapseOffset;
+
+    /**
+     * 为保证列表能滚动完整的折叠距离,额外追加到ListView,RecyclerView底部的padding px
+     */
+    private int mCollapseReserve;
+    /**
+     * 计算mCollapseReserve时的折叠距离,Header,Top层高度变化后需要重新计算
+     */
+    private int mCollapseReserveRange = -1;
+
+    /**
+     * 在布局完成之后更新mCollapseReserve,避免在布局过程中修改列表的padding
+     */
+    private final Runnable mCollapseReserveUpdater = new Runnable() {
+        @Override
+        public void run() {
+            View list = mRecyclerView != null ? mRecyclerView : mListView;
+            if (list != null && list.isLayoutRequested()) {
+                /**列表还没有按新的数据完成布局,等布局之后再计算**/
+                list.post(this);
+                return;
+            }
+            updateCollapseReserve();
+        }
+    };
+
+    /**
+     * 注册了滚动监听的ViewTreeObserver,容器重新attach到窗口后需要重新注册
+     */
+    private ViewTreeObserver mCollapseObserver;
+
+    private final ViewTreeObserver.OnScrollChangedListener mCollapseScrollListener = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            applyCollapseOffset(false);
+        }
+    };
+
+    /**
+     * 最后一次刷新成功的页面快照,参见{@link #setPageSnapshot(String, PageSnapshotAdapter, long)}
+     */
+    private PageSnapshotStore mSnapshotStore;
+    private PageSnapshotAdapter<?> mSnapshotAdapter;
+    /**
+     * 快照读取完成前刷新是否已经成功,成功后不再展示过期的快照
+     */
+    private boolean mRefreshSucceeded;
 
     public CenterLayoutManager(IContainerManager mContainerManager) {
         super(mContainerManager);
@@ -117,6 +198,15 @@ public class CenterLayoutManager extends AbstractLayoutManager implements
             int measuredHeight = view.getMeasuredHeight();
             view.layout(left + leftMargin, topPosition, right - rightMargin, topPosition + measuredHeight);
         }
+        if (mScrollLinkedCollapse && !mViewCollections.isEmpty()) {
+            PowerfulContainerLayout container = (PowerfulContainerLayout) mContainerManager;
+            registerCollapseScrollListener(container);
+            container.setChildClipBottom(getContentView(), container.getHeight() - getMarginLayoutParams().bottomMargin - getBottomLayersHeight());
+            if (getCollapseRange() != mCollapseReserveRange) {
+                postCollapseReserveUpdate();
+            }
+            applyCollapseOffset(true);
+        }
     }
 
     @Override
@@ -133,6 +223,10 @@ public class CenterLayoutManager extends AbstractLayoutManager implements
             List<ILayoutManager<ILayoutManager>> layoutManagers = mContainerManager.layoutManagers();
             for (ILayoutManager<ILayoutManager> layoutManager : layoutManagers) {
                 if (layoutManager.getLayer() < mLayer && layoutManager.getVisibility() != View.GONE) {
+                    /**滚动联动折叠时Header,Top层通过平移让出空间,中间视图按不包括它们的完整高度测量**/
+                    if (mScrollLinkedCollapse && layoutManager.getLayer() <= Layer.LAYER_PART_OF_BASIC_TOP) {
+                        continue;
+                    }
                     basicLayoutHeights += layoutManager.getMeasuredHeight();
                     ViewGroup.MarginLayoutParams marginLayoutParams = layoutManager.getMarginLayoutParams();
                     basicLayoutHeights += (marginLayoutParams.topMargin + marginLayoutParams.bottomMargin);
@@ -153,14 +247,228 @@ public class CenterLayoutManager extends AbstractLayoutManager implements
             int basicWidth = containerWidth - leftMargin - rightMargin;
             int basicHeight = containerHeight - topMargin - bottomMarin - basicLayoutHeights;
 
-            int basicWidthSpec = View.MeasureSpec.makeMeasureSpec((int) (basicWidth * this.mUIFrameViewAnimator.getPhaseX()), View.MeasureSpec.EXACTLY);
-            int basicHeightSpec = View.MeasureSpec.makeMeasureSpec((int) (basicHeight * this.mUIFrameViewAnimator.getPhaseY()), View.MeasureSpec.EXACTLY);
+            int basicWidthSpec = View.MeasureSpec.makeMeasureSpec((int) (basicWidth * getPhaseX(view)), View.MeasureSpec.EXACTLY);
+            int basicHeightSpec = View.MeasureSpec.makeMeasureSpec((int) (basicHeight * getPhaseY(view)), View.MeasureSpec.EXACTLY);
 
             //测量当前布局的高宽
             mContainerManager.measureChild(view, basicWidthSpec, basicHeightSpec);
         }
     }
 
+    /**
+     * 开启或关闭滚动联动折叠: 中间列表向上滚动时,Header,Top层跟随平移折叠,直到完全移出容器;
+     * 中间视图按不包括Header,Top层的完整高度测量,跟随平移填满让出的空间,超出Bottom层的部分不绘制;
+     * 滚动过程中只改变视图的平移,不会触发容器重新测量和布局;
+     * <br>
+     * 滚动距离取自ListView,RecyclerView,WebView,普通布局则取中间视图自身的scrollY;
+     * <br>
+     * 未完全折叠时中间视图底部有一段在Bottom层下方不可见,内容必须能滚动完整的折叠距离才能露出来:
+     * ListView,RecyclerView内容不足时会在底部追加padding补足,在开启折叠,Header,Top层高度变化及刷新成功后计算,
+     * 其它方式更新列表数据后需要调用{@link #requestCollapseReserveUpdate()};WebView和普通布局不做处理,
+     * 内容可滚动距离小于{@link #getCollapseRange()}时其底部的一部分会一直被遮住,这类页面不建议开启;
+     *
+     * @param enable true:开启 false:关闭
+     */
+    public void setScrollLinkedCollapse(boolean enable) {
+        if (mScrollLinkedCollapse == enable) {
+            return;
+        }
+        this.mScrollLinkedCollapse = enable;
+        PowerfulContainerLayout container = (PowerfulContainerLayout) mContainerManager;
+        if (enable) {
+            registerCollapseScrollListener(container);
+            postCollapseReserveUpdate();
+        } else {
+            if (mCollapseObserver != null && mCollapseObserver.isAlive()) {
+                mCollapseObserver.removeOnScrollChangedListener(mCollapseScrollListener);
+            }
+            mCollapseObserver = null;
+            container.setChildClipBottom(null, 0);
+            mCollapseOffset = 0;
+            setCollapseTranslation(0);
+            View list = mRecyclerView != null ? mRecyclerView : mListView;
+            if (list != null) {
+                list.removeCallbacks(mCollapseReserveUpdater);
+            }
+            updateCollapseReserve();
+        }
+        mContainerManager.requestLayout();
+    }
+
+    public boolean isScrollLinkedCollapse() {
+        return mScrollLinkedCollapse;
+    }
+
+    /**
+     * @return 当前折叠的距离 px, 0表示完全展开
+     */
+    public int getCollapseOffset() {
+        return mCollapseOffset;
+    }
+
+    /**
+     * @return 最大折叠距离 px, 即可见的Header,Top层的总高度
+     */
+    public int getCollapseRange() {
+        int range = 0;
+        List<ILayoutManager<ILayoutManager>> managers = mContainerManager.layoutManagers();
+        for (int i = 0; i < managers.size(); i++) {
+            ILayoutManager<ILayoutManager> layoutManager = managers.get(i);
+            if (layoutManager.getLayer() <= Layer.LAYER_PART_OF_BASIC_TOP && layoutManager.getVisibility() != View.GONE) {
+                ViewGroup.MarginLayoutParams marginLayoutParams = layoutManager.getMarginLayoutParams();
+                range += marginLayoutParams.topMargin + marginLayoutParams.bottomMargin + layoutManager.getMeasuredHeight();
+            }
+        }
+        return range;
+    }
+
+    private void registerCollapseScrollListener(View container) {
+        ViewTreeObserver observer = container.getViewTreeObserver();
+        if (observer == mCollapseObserver) {
+            return;
+        }
+        if (mCollapseObserver != null && mCollapseObserver.isAlive()) {
+            mCollapseObserver.removeOnScrollChangedListener(mCollapseScrollListener);
+        }
+        observer.addOnScrollChangedListener(mCollapseScrollListener);
+        mCollapseObserver = observer;
+    }
+
+    private int getBottomLayersHeight() {
+        int height = 0;
+        List<ILayoutManager<ILayoutManager>> managers = mContainerManager.layoutManagers();
+        for (int i = 0; i < managers.size(); i++) {
+            ILayoutManager<ILayoutManager> layoutManager = managers.get(i);
+            if (layoutManager.getLayer() > Layer.LAYER_PART_OF_BASIC_TOP && layoutManager.getLayer() < mLayer
+                    && layoutManager.getVisibility() != View.GONE) {
+                ViewGroup.MarginLayoutParams marginLayoutParams = layoutManager.getMarginLayoutParams();
+                height += marginLayoutParams.topMargin + marginLayoutParams.bottomMargin + layoutManager.getMeasuredHeight();
+            }
+        }
+        return height;
+    }
+
+    /**
+     * 按中间视图的滚动距离更新折叠距离
+     *
+     * @param force true:折叠距离不变也重新设置平移,用于布局之后
+     */
+    private void applyCollapseOffset(boolean force) {
+        if (!mScrollLinkedCollapse) {
+            return;
+        }
+        int offset = Math.max(0, Math.min(getCollapseRange(), computeContentScrollOffset()));
+        if (offset == mCollapseOffset && !force) {
+            return;
+        }
+        mCollapseOffset = offset;
+        setCollapseTranslation(-offset);
+    }
+
+    /**
+     * 列表数据变化后重新计算底部追加的padding,参见{@link #setScrollLinkedCollapse(boolean)};
+     * 在下一次布局完成后计算,只有结果变化时才会重新布局列表,滚动过程中不需要调用
+     */
+    public void requestCollapseReserveUpdate() {
+        if (mScrollLinkedCollapse) {
+            postCollapseReserveUpdate();
+        }
+    }
+
+    private void postCollapseReserveUpdate() {
+        View list = mRecyclerView != null ? mRecyclerView : mListView;
+        if (list == null) {
+            return;
+        }
+        list.removeCallbacks(mCollapseReserveUpdater);
+        list.post(mCollapseReserveUpdater);
+    }
+
+    /**
+     * 列表可滚动距离小于折叠距离时,在底部追加padding补足,否则最后几行一直被Bottom层遮住;
+     * 关闭折叠时移除追加的padding
+     */
+    private void updateCollapseReserve() {
+        View list = mRecyclerView != null ? mRecyclerView : mListView;
+        if (list == null) {
+            return;
+        }
+        int reserve = 0;
+        if (mScrollLinkedCollapse) {
+            int range = getCollapseRange();
+            mCollapseReserveRange = range;
+            reserve = Math.max(0, range - Math.min(range, computeScrollRangeWithoutReserve(list)));
+        } else {
+            mCollapseReserveRange = -1;
+        }
+        /**RecyclerView的滚动范围是估算值,忽略1px的抖动,避免反复重新布局**/
+        if (reserve == mCollapseReserve || (reserve != 0 && Math.abs(reserve - mCollapseReserve) <= 1)) {
+            return;
+        }
+        list.setPadding(list.getPaddingLeft(), list.getPaddingTop(), list.getPaddingRight(),
+                list.getPaddingBottom() - mCollapseReserve + reserve);
+        mCollapseReserve = reserve;
+    }
+
+    /**
+     * @return 不计追加的padding时列表可滚动的距离 px, 无法确定时返回Integer.MAX_VALUE
+     */
+    private int computeScrollRangeWithoutReserve(View list) {
+        int viewport = list.getHeight() - list.getPaddingTop() - (list.getPaddingBottom() - mCollapseReserve);
+        int content;
+        if (list == mRecyclerView) {
+            content = mRecyclerView.computeVerticalScrollRange();
+        } else {
+            int count = mListView.getChildCount();
+            if (count == 0) {
+                content = 0;
+            } else if (mListView.getFirstVisiblePosition() > 0 || mListView.getLastVisiblePosition() < mListView.getCount() - 1) {
+                /**还有未展示的行,内容高度未知,按可以滚动完整的折叠距离处理**/
+                return Integer.MAX_VALUE;
+            } else {
+                content = mListView.getChildAt(count - 1).getBottom() - mListView.getChildAt(0).getTop();
+            }
+        }
+        return Math.max(0, content - viewport);
+    }
+
+    private void setCollapseTranslation(float translationY) {
+        List<ILayoutManager<ILayoutManager>> managers = mContainerManager.layoutManagers();
+        for (int i = 0; i < managers.size(); i++) {
+            ILayoutManager<ILayoutManager> layoutManager = managers.get(i);
+            if (layoutManager != this && layoutManager.getLayer() > Layer.LAYER_PART_OF_BASIC_TOP) {
+                continue;
+            }
+            List<View> views = layoutManager.getContentViews();
+            for (int j = 0; j < views.size(); j++) {
+                views.get(j).setTranslationY(translationY);
+            }
+        }
+    }
+
+    /**
+     * @return 中间视图内容的滚动距离 px, 列表第一项已经滚出时返回Integer.MAX_VALUE
+     */
+    private int computeContentScrollOffset() {
+        if (mRecyclerView != null) {
+            return mRecyclerView.computeVerticalScrollOffset();
+        }
+        if (mListView != null) {
+            if (mListView.getChildCount() == 0) {
+                return 0;
+            }
+            if (mListView.getFirstVisiblePosition() > 0) {
+                return Integer.MAX_VALUE;
+            }
+            return mListView.getPaddingTop() - mListView.getChildAt(0).getTop();
+        }
+        if (mWebView != null) {
+            return mWebView.getScrollY();
+        }
+        View content = getContentView();
+        return content == null ? 0 : content.getScrollY();
+    }
+
     /**
      * 根据给定的布局文件，在容器中添加一个视图，并返回当前这个视图对象;
      * 如果容器中已经存在该类型的视图，则不充许再次添加.
@@ -193,7 +501,11 @@ public class CenterLayoutManager extends AbstractLayoutManager implements
         if (containerLayout.contains(center)) {
             throw new UIFrameLayoutAlreadyExistException("Center视图已经添加到容器当中了，该视图不能重复添加.");
         } else {
-            center.addLayout(R.layout.ui_frame_center_listview_layout);
+            if (UIFrameViewBuilders.isEnabled()) {
+                center.addLayout(UIFrameViewBuilders.CENTER_LIST_VIEW);
+            } else {
+                center.addLayout(R.layout.ui_frame_center_listview_layout);
+            }
             center.mListView = (ListView) center.getContentView().findViewById(R.id.ui_frame_center_list_view);
             center.mListView.setAdapter(new EmptyAdapter());
             center.mCenterBuildType = CENTER_TYPE_PULL_LIST_VIEW;
@@ -203,6 +515,87 @@ public class CenterLayoutManager extends AbstractLayoutManager implements
         return center;
     }
 
+    /**
+     * 构造一个带下拉刷新和RecyclerView的中间视图,并返回当前这个视图对象;
+     * 如果容器中已经存在该类型的视图，则不充许再次添加.
+     * <br>
+     * RecyclerView默认使用竖直方向的LinearLayoutManager,并且在视图销毁时把行视图回收到视图池中,
+     * 宿主Activity实现了{@link com.xn.uiframe.utils.SharedViewPool.Owner}时,由{@link com.xn.uiframe.BaseViewContainer}设置共享的视图池;
+     *
+     * @param containerLayout 当前界面的顶层容器
+     * @return 布局文件加载后的视图布局Manager对象
+     */
+    public static CenterLayoutManager buildPullRefreshLayoutWithRecyclerView(IContainerManager containerLayout) {
+        CenterLayoutManager center = new CenterLayoutManager(containerLayout);
+        if (containerLayout.contains(center)) {
+            throw new UIFrameLayoutAlreadyExistException("Center视图已经添加到容器当中了，该视图不能重复添加.");
+        } else {
+            center.addLayout(R.layout.ui_frame_center_recyclerview_layout);
+            center.mRecyclerView = (RecyclerView) center.getContentView().findViewById(R.id.ui_frame_center_recycler_view);
+            LinearLayoutManager layoutManager = new LinearLayoutManager(center.mRecyclerView.getContext());
+            layoutManager.setRecycleChildrenOnDetach(true);
+            center.mRecyclerView.setLayoutManager(layoutManager);
+            center.mCenterBuildType = CENTER_TYPE_PULL_RECYCLER_VIEW;
+
+            containerLayout.addLayoutManager(center);
+        }
+        return center;
+    }
+
+    /**
+     * 构造一个带下拉刷新和WebView的中间视图,并返回当前这个视图对象;
+     * 如果容器中已经存在该类型的视图，则不充许再次添加.
+     * <br>
+     * WebView从{@link WebViewPool}中取出,池中预创建了WebView时不需要在打开界面时初始化内核;
+     * 界面销毁时通过{@link #releaseWebView()}归还到池中;
+     *
+     * @param containerLayout 当前界面的顶层容器
+     * @return 布局文件加载后的视图布局Manager对象
+     */
+    public static CenterLayoutManager buildPullRefreshLayoutWithWebView(IContainerManager containerLayout) {
+        final CenterLayoutManager center = new CenterLayoutManager(containerLayout);
+        if (containerLayout.contains(center)) {
+            throw new UIFrameLayoutAlreadyExistException("Center视图已经添加到容器当中了，该视图不能重复添加.");
+        } else {
+            center.addLayout(new IViewBuilder() {
+                @Override
+                public View build(Context context, ViewGroup parent) {
+                    UIFrameRefreshViewLayout refreshLayout = new UIFrameRefreshViewLayout(context);
+                    refreshLayout.setLayoutParams(new ViewGroup.MarginLayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+                    center.mWebView = WebViewPool.getInstance(context).acquire(context);
+                    refreshLayout.addView(center.mWebView, new ViewGroup.MarginLayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+                    refreshLayout.finishBuild();
+                    return refreshLayout;
+                }
+            });
+            center.mCenterBuildType = CENTER_TYPE_PULL_WEB_VIEW;
+
+            containerLayout.addLayoutManager(center);
+        }
+        return center;
+    }
+
+    /**
+     * 把WebView归还到{@link WebViewPool},只对{@link #CENTER_TYPE_PULL_WEB_VIEW}类型有效,归还后不能再使用{@link #getWebView()}
+     */
+    public void releaseWebView() {
+        if (mWebView != null) {
+            WebViewPool.getInstance(mWebView.getContext()).release(mWebView);
+            mWebView = null;
+        }
+    }
+
+    /**
+     * 设置RecyclerView使用的行视图池,只对{@link #CENTER_TYPE_PULL_RECYCLER_VIEW}类型有效
+     *
+     * @param pool 行视图池
+     */
+    public void setRecycledViewPool(RecyclerView.RecycledViewPool pool) {
+        if (mRecyclerView != null) {
+            mRecyclerView.setRecycledViewPool(pool);
+        }
+    }
+
     public void setOnRefreshListener(OnRefreshListener listener) {
         View view = getContentView();
         if (view instanceof UIFrameRefreshViewLayout) {
@@ -213,12 +606,40 @@ public class CenterLayoutManager extends AbstractLayoutManager implements
         }
     }
 
+    /**
+     * 设置刷新/加载的超时时间,超时后自动结束刷新,参见{@link com.xn.uiframe.refreshlayout.RefreshLayout#setRefreshTimeout(long)}
+     *
+     * @param timeout 超时时间 ms, 小于等于0表示不超时
+     */
+    public void setRefreshTimeout(long timeout) {
+        View view = getContentView();
+        if (view instanceof UIFrameRefreshViewLayout) {
+            UIFrameRefreshViewLayout wrapper = (UIFrameRefreshViewLayout) view;
+            wrapper.setRefreshTimeout(timeout);
+        }
+    }
+
+    /**
+     * 设置超时后的重试策略,参见{@link com.xn.uiframe.refreshlayout.RefreshLayout#setRetryPolicy(int, long)}
+     *
+     * @param maxRetryCount  最大重试次数
+     * @param initialBackoff 第一次重试前的等待时间 ms
+     */
+    public void setRefreshRetryPolicy(int maxRetryCount, long initialBackoff) {
+        View view = getContentView();
+        if (view instanceof UIFrameRefreshViewLayout) {
+            UIFrameRefreshViewLayout wrapper = (UIFrameRefreshViewLayout) view;
+            wrapper.setRetryPolicy(maxRetryCount, initialBackoff);
+        }
+    }
+
     @Override
     public void stopRefresh(boolean isSuccess) {
         View view = getContentView();
         if (view instanceof UIFrameRefreshViewLayout) {
             UIFrameRefreshViewLayout wrapper = (UIFrameRefreshViewLayout) view;
             wrapper.stopRefresh(isSuccess);
+            onRefreshStopped(isSuccess);
         }
     }
 
@@ -231,6 +652,142 @@ public class CenterLayoutManager extends AbstractLayoutManager implements
         }
     }
 
+    @Override
+    public boolean stopRefresh(int generation, boolean isSuccess) {
+        View view = getContentView();
+        if (view instanceof UIFrameRefreshViewLayout) {
+            UIFrameRefreshViewLayout wrapper = (UIFrameRefreshViewLayout) view;
+            if (wrapper.stopRefresh(generation, isSuccess)) {
+                onRefreshStopped(isSuccess);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 开启页面快照: 每次刷新成功后在后台线程保存当前页面数据,调用时先在后台读取上次保存的快照,
+     * 读取完成且刷新还没有成功时通过{@link PageSnapshotAdapter#onSnapshotLoaded(Object, long)}展示快照,
+     * 同时刷新继续在后台进行; 快照展示的时间计为首次内容展示的耗时,参见{@link #setOnContentReadyListener(OnContentReadyListener)};
+     * <br>
+     * 需要在{@link #autoRefresh()}之前调用;
+     *
+     * @param key          快照名称,同一应用内唯一
+     * @param adapter      页面数据的读写及展示
+     * @param maxAgeMillis 快照的最长有效时间 ms, 小于等于0表示不过期
+     */
+    public <T> void setPageSnapshot(String key, final PageSnapshotAdapter<T> adapter, long maxAgeMillis) {
+        View view = getContentView();
+        if (view == null) {
+            return;
+        }
+        this.mSnapshotStore = new PageSnapshotStore(view.getContext(), key);
+        this.mSnapshotAdapter = adapter;
+        this.mRefreshSucceeded = false;
+        this.mSnapshotStore.load(adapter, maxAgeMillis, new PageSnapshotStore.Callback<T>() {
+            @Override
+            public void onLoaded(T page, long ageMillis) {
+                /**刷新已经成功或快照已被替换时,丢弃读取到的快照**/
+                if (page == null || mRefreshSucceeded || mSnapshotAdapter != adapter) {
+                    return;
+                }
+                adapter.onSnapshotLoaded(page, ageMillis);
+                View content = getContentView();
+                if (content instanceof UIFrameRefreshViewLayout) {
+                    ((UIFrameRefreshViewLayout) content).dispatchContentReady();
+                }
+            }
+        });
+    }
+
+    /**
+     * 删除保存的页面快照并停止保存
+     */
+    public void clearPageSnapshot() {
+        if (mSnapshotStore != null) {
+            mSnapshotStore.clear();
+        }
+        mSnapshotStore = null;
+        mSnapshotAdapter = null;
+    }
+
+    private void onRefreshStopped(boolean isSuccess) {
+        if (!isSuccess) {
+            return;
+        }
+        mRefreshSucceeded = true;
+        /**刷新成功时列表数据已经更新,重新计算折叠需要的底部padding**/
+        requestCollapseReserveUpdate();
+        if (mSnapshotStore != null && mSnapshotAdapter != null) {
+            saveSnapshot(mSnapshotAdapter);
+        }
+    }
+
+    private <T> void saveSnapshot(PageSnapshotAdapter<T> adapter) {
+        T page = adapter.getSnapshotPage();
+        if (page != null) {
+            mSnapshotStore.save(page, adapter);
+        }
+    }
+
+    @Override
+    public boolean stopLoadMore(int generation, boolean isSuccess) {
+        View view = getContentView();
+        if (view instanceof UIFrameRefreshViewLayout) {
+            UIFrameRefreshViewLayout wrapper = (UIFrameRefreshViewLayout) view;
+            return wrapper.stopLoadMore(generation, isSuccess);
+        }
+        return false;
+    }
+
+    @Override
+    public void autoRefresh() {
+        View view = getContentView();
+        if (view instanceof UIFrameRefreshViewLayout) {
+            UIFrameRefreshViewLayout wrapper = (UIFrameRefreshViewLayout) view;
+            wrapper.setAutoRefresh(true);
+        }
+    }
+
+    /**
+     * 设置自动刷新时是否在头部动画开始前就发起数据加载
+     *
+     * @param loadInParallel true:数据加载与头部动画并行
+     */
+    public void setLoadInParallel(boolean loadInParallel) {
+        View view = getContentView();
+        if (view instanceof UIFrameRefreshViewLayout) {
+            UIFrameRefreshViewLayout wrapper = (UIFrameRefreshViewLayout) view;
+            wrapper.setLoadInParallel(loadInParallel);
+        }
+    }
+
+    /**
+     * 设置首次内容展示回调,用来统计自动刷新到内容展示的耗时
+     *
+     * @param listener
+     */
+    public void setOnContentReadyListener(OnContentReadyListener listener) {
+        View view = getContentView();
+        if (view instanceof UIFrameRefreshViewLayout) {
+            UIFrameRefreshViewLayout wrapper = (UIFrameRefreshViewLayout) view;
+            wrapper.setOnContentReadyListener(listener);
+        }
+    }
+
+    /**
+     * 设置下拉刷新开始时是否取消进行中的加载更多
+     *
+     * @param cancel true:取消  false:不取消
+     */
+    public void setCancelLoadOnRefresh(boolean cancel) {
+        View view = getContentView();
+        if (view instanceof UIFrameRefreshViewLayout) {
+            UIFrameRefreshViewLayout wrapper = (UIFrameRefreshViewLayout) view;
+            wrapper.setCancelLoadOnRefresh(cancel);
+        }
+    }
+
     @Override
     public void enableRefresh(boolean enable) {
         View view = getContentView();
@@ -249,6 +806,22 @@ public class CenterLayoutManager extends AbstractLayoutManager implements
         }
     }
 
+    /**
+     * @return 是否可以下拉刷新, 不带下拉刷新功能的中间视图返回false
+     */
+    public boolean isRefreshEnabled() {
+        View view = getContentView();
+        return view instanceof UIFrameRefreshViewLayout && ((UIFrameRefreshViewLayout) view).isCanRefresh;
+    }
+
+    /**
+     * @return 是否可以加载更多, 不带下拉刷新功能的中间视图返回false
+     */
+    public boolean isLoadMoreEnabled() {
+        View view = getContentView();
+        return view instanceof UIFrameRefreshViewLayout && ((UIFrameRefreshViewLayout) view).isCanLoad;
+    }
+
     @Override
     public View addCompanionScrollableHeader(@LayoutRes int layout) {
 
@@ -278,6 +851,14 @@ public class CenterLayoutManager extends AbstractLayoutManager implements
         return mListView;
     }
 
+    public RecyclerView getRecyclerView() {
+        return mRecyclerView;
+    }
+
+    public WebView getWebView() {
+        return mWebView;
+    }
+
     public int getCenterBuildType() {
         return mCenterBuildType;
     }
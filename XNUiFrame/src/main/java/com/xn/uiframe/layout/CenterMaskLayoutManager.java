@@ -1,11 +1,9 @@
 package com.xn.uiframe.layout;
 
 import android.support.annotation.LayoutRes;
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
-import com.xn.uiframe.PowerfulContainerLayout;
 import com.xn.uiframe.exception.UIFrameLayoutAlreadyExistException;
 import com.xn.uiframe.interfaces.IContainerManager;
 import com.xn.uiframe.interfaces.ILayoutManager;
@@ -120,8 +118,8 @@ public class CenterMaskLayoutManager extends AbstractLayoutManager{
             int basicWidth = containerWidth - leftMargin - rightMargin;
             int basicHeight = containerHeight - topMargin - bottomMarin - basicLayoutHeights;
 
-            int basicWidthSpec = View.MeasureSpec.makeMeasureSpec((int) (basicWidth * this.mUIFrameViewAnimator.getPhaseX()), View.MeasureSpec.EXACTLY);
-            int basicHeightSpec = View.MeasureSpec.makeMeasureSpec((int) (basicHeight * this.mUIFrameViewAnimator.getPhaseY()), View.MeasureSpec.EXACTLY);
+            int basicWidthSpec = View.MeasureSpec.makeMeasureSpec((int) (basicWidth * getPhaseX(view)), View.MeasureSpec.EXACTLY);
+            int basicHeightSpec = View.MeasureSpec.makeMeasureSpec((int) (basicHeight * getPhaseY(view)), View.MeasureSpec.EXACTLY);
 
             //测量当前布局的高宽
             mContainerManager.measureChild(view, basicWidthSpec, basicHeightSpec);
@@ -146,8 +144,7 @@ public class CenterMaskLayoutManager extends AbstractLayoutManager{
 
     @Override
     public View addLayout(@LayoutRes int layout) {
-        PowerfulContainerLayout powerfulContainer = (PowerfulContainerLayout) mContainerManager;
-        View  view = LayoutInflater.from(powerfulContainer.getContext()).inflate(layout, powerfulContainer, false);
+        View view = inflateLayout(layout);
         mViewCollections.add(view);
         return view;
     }
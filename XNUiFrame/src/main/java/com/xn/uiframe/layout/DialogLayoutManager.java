@@ -2,12 +2,11 @@ package com.xn.uiframe.layout;
 
 import android.support.annotation.LayoutRes;
 import android.support.v4.content.ContextCompat;
-import android.view.LayoutInflater;
 import android.view.View;
 
-import com.xn.uiframe.PowerfulContainerLayout;
 import com.xn.uiframe.R;
 import com.xn.uiframe.interfaces.IContainerManager;
+import com.xn.uiframe.interfaces.IViewBuilder;
 
 /**
  * 对话框视图管理,可以添加多个对话框布局视图,显示和绘制的顺序按添加的顺序;
@@ -57,10 +56,18 @@ public class DialogLayoutManager extends FullScreenLayoutManager {
 
     @Override
     public View addLayout(@LayoutRes int layout) {
-        PowerfulContainerLayout powerfulContainer = (PowerfulContainerLayout) mContainerManager;
-        View  view = LayoutInflater.from(powerfulContainer.getContext()).inflate(layout, powerfulContainer, false);
+        View view = inflateLayout(layout);
         view.setBackground(ContextCompat.getDrawable(view.getContext(),R.drawable.ui_frame_dialog_translucency));
         mViewCollections.add(view);
         return view;
     }
+
+    @Override
+    public View addLayout(IViewBuilder builder) {
+        View view = super.addLayout(builder);
+        if (view != null) {
+            view.setBackground(ContextCompat.getDrawable(view.getContext(), R.drawable.ui_frame_dialog_translucency));
+        }
+        return view;
+    }
 }
@@ -1,11 +1,9 @@
 package com.xn.uiframe.layout;
 
 import android.support.annotation.LayoutRes;
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
-import com.xn.uiframe.PowerfulContainerLayout;
 import com.xn.uiframe.R;
 import com.xn.uiframe.animation.Easing;
 import com.xn.uiframe.exception.UIFrameIllegalArgumentException;
@@ -99,8 +97,7 @@ public class FullScreenLayoutManager extends AbstractLayoutManager {
 
     @Override
     public View addLayout(@LayoutRes int layout) {
-        PowerfulContainerLayout powerfulContainer = (PowerfulContainerLayout) mContainerManager;
-        View  view = LayoutInflater.from(powerfulContainer.getContext()).inflate(layout, powerfulContainer, false);
+        View view = inflateLayout(layout);
         mViewCollections.add(view);
         return view;
     }
@@ -6,15 +6,17 @@ import android.support.annotation.ColorRes;
 import android.support.annotation.DrawableRes;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.StringRes;
-import android.support.v4.content.ContextCompat;
+import android.text.TextUtils;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import com.xn.uiframe.R;
+import com.xn.uiframe.builder.UIFrameViewBuilders;
 import com.xn.uiframe.exception.UIFrameLayoutAlreadyExistException;
 import com.xn.uiframe.interfaces.IContainerManager;
 import com.xn.uiframe.interfaces.IHeaderViewBehavior;
+import com.xn.uiframe.utils.ScaledDrawableCache;
 import com.xn.uiframe.widget.HeaderRelativeLayout;
 
 /**
@@ -55,6 +57,24 @@ public class HeaderLayoutManager extends AbstractLayoutManager implements IHeade
 
     private OnHeaderViewClickListener mOnHeaderViewClickListener;
 
+    /**
+     * 缓存头部的三个TextView,避免每次修改都调用findViewById
+     */
+    private TextView mLeftView;
+    private TextView mCenterView;
+    private TextView mRightView;
+
+    /**
+     * 记录当前左右图标的资源,缩放因子及图标缓存的代数,相同的图标不再重复设置;
+     * 屏幕密度,夜间模式变化后图标缓存被清空,代数随之变化,之后再设置时重新加载
+     */
+    private int mLeftImageRes;
+    private float mLeftImageScale;
+    private int mLeftImageGeneration;
+    private int mRightImageRes;
+    private float mRightImageScale;
+    private int mRightImageGeneration;
+
     public HeaderLayoutManager(IContainerManager mContainerManager) {
         super(mContainerManager);
         this.mLayer = Layer.LAYER_PART_OF_BASIC_HEADER;
@@ -91,6 +111,7 @@ public class HeaderLayoutManager extends AbstractLayoutManager implements IHeade
             throw new UIFrameLayoutAlreadyExistException("Header视图已经添加到容器当中了，该视图不能重复添加.");
         } else {
             header.addLayout(layout);
+            header.bindHeaderViews();
             header.setHeaderClickListener();
             containerLayout.addLayoutManager(header);
         }
@@ -106,16 +127,26 @@ public class HeaderLayoutManager extends AbstractLayoutManager implements IHeade
      * @return 布局文件加载后的视图布局Manager对象
      */
     public static HeaderLayoutManager buildLayoutManager(IContainerManager containerLayout) {
-        return buildLayoutManager(containerLayout, R.layout.ui_frame_common_header_layout);
+        if (!UIFrameViewBuilders.isEnabled()) {
+            return buildLayoutManager(containerLayout, R.layout.ui_frame_common_header_layout);
+        }
+        HeaderLayoutManager header = new HeaderLayoutManager(containerLayout);
+        if (containerLayout.contains(header)) {
+            throw new UIFrameLayoutAlreadyExistException("Header视图已经添加到容器当中了，该视图不能重复添加.");
+        } else {
+            /**默认头部用代码构造,省去布局文件的解析耗时**/
+            header.addLayout(UIFrameViewBuilders.COMMON_HEADER);
+            header.bindHeaderViews();
+            header.setHeaderClickListener();
+            containerLayout.addLayoutManager(header);
+        }
+        return header;
     }
 
 
     @Override
     public TextView setHeaderLeftText(@StringRes int resource) {
-        View view = getContentView();
-        TextView textView = (TextView) view.findViewById(R.id.ui_frame_header_left);
-        textView.setText(resource);
-        return textView;
+        return applyText(mLeftView, resource);
     }
 
     @Override
@@ -125,18 +156,12 @@ public class HeaderLayoutManager extends AbstractLayoutManager implements IHeade
 
     @Override
     public TextView setHeaderCenterText(@StringRes int resource) {
-        View view = getContentView();
-        TextView textView = (TextView) view.findViewById(R.id.ui_frame_header_center);
-        textView.setText(resource);
-        return textView;
+        return applyText(mCenterView, resource);
     }
 
     @Override
     public TextView setHeaderRightText(@StringRes int resource) {
-        View view = getContentView();
-        TextView textView = (TextView) view.findViewById(R.id.ui_frame_header_right);
-        textView.setText(resource);
-        return textView;
+        return applyText(mRightView, resource);
     }
 
     @Override
@@ -149,15 +174,25 @@ public class HeaderLayoutManager extends AbstractLayoutManager implements IHeade
         this.mOnHeaderViewClickListener = lister;
     }
 
-    private void setHeaderClickListener() {
+    /**
+     * 查找并缓存头部的视图对象
+     */
+    private void bindHeaderViews() {
         View view = getContentView();
-        TextView right = (TextView) view.findViewById(R.id.ui_frame_header_right);
-        TextView left = (TextView) view.findViewById(R.id.ui_frame_header_left);
-        if (right != null) {
-            right.setOnClickListener(this);
+        if (view == null) {
+            return;
+        }
+        mLeftView = (TextView) view.findViewById(R.id.ui_frame_header_left);
+        mCenterView = (TextView) view.findViewById(R.id.ui_frame_header_center);
+        mRightView = (TextView) view.findViewById(R.id.ui_frame_header_right);
+    }
+
+    private void setHeaderClickListener() {
+        if (mRightView != null) {
+            mRightView.setOnClickListener(this);
         }
-        if (left != null) {
-            left.setOnClickListener(this);
+        if (mLeftView != null) {
+            mLeftView.setOnClickListener(this);
         }
     }
 
@@ -181,46 +216,49 @@ public class HeaderLayoutManager extends AbstractLayoutManager implements IHeade
 
     @Override
     public TextView setHeaderLeftText(String content) {
-        View view = getContentView();
-        TextView textView = (TextView) view.findViewById(R.id.ui_frame_header_left);
-        textView.setText(content);
-        return textView;
+        return applyText(mLeftView, content);
     }
 
     @Override
     public TextView setHeaderRightText(String content) {
-        View view = getContentView();
-        TextView textView = (TextView) view.findViewById(R.id.ui_frame_header_right);
-        textView.setText(content);
-        return textView;
+        return applyText(mRightView, content);
     }
 
     @Override
     public TextView setHeaderCenterText(String content) {
-        View view = getContentView();
-        TextView textView = (TextView) view.findViewById(R.id.ui_frame_header_center);
-        textView.setText(content);
-        return textView;
+        return applyText(mCenterView, content);
     }
 
     @Override
     public TextView setHeaderLeftImage(@DrawableRes int resource, float scaleFactor) {
-        View view = getContentView();
-        TextView textView = (TextView) view.findViewById(R.id.ui_frame_header_left);
-        Drawable drawable = ContextCompat.getDrawable(textView.getContext(),resource);
-        drawable.setBounds(0, 0, (int) (drawable.getIntrinsicWidth() * scaleFactor), (int) (drawable.getIntrinsicHeight() * scaleFactor));
-        textView.setCompoundDrawables(drawable, null, null, null);
-        return textView;
+        if (mLeftView == null) {
+            return null;
+        }
+        int generation = ScaledDrawableCache.getInstance().getGeneration(mLeftView.getContext());
+        if (mLeftImageRes == resource && mLeftImageScale == scaleFactor && mLeftImageGeneration == generation) {
+            return mLeftView;
+        }
+        mLeftImageRes = resource;
+        mLeftImageScale = scaleFactor;
+        mLeftImageGeneration = generation;
+        mLeftView.setCompoundDrawables(loadScaledDrawable(mLeftView, resource, scaleFactor), null, null, null);
+        return mLeftView;
     }
 
     @Override
     public TextView setHeaderRightImage(@DrawableRes int resource, float scaleFactor) {
-        View view = getContentView();
-        TextView textView = (TextView) view.findViewById(R.id.ui_frame_header_right);
-        Drawable drawable = ContextCompat.getDrawable(textView.getContext(),resource);
-        drawable.setBounds(0, 0, (int) (drawable.getIntrinsicWidth() * scaleFactor), (int) (drawable.getIntrinsicHeight() * scaleFactor));
-        textView.setCompoundDrawables(null, null, drawable, null);
-        return textView;
+        if (mRightView == null) {
+            return null;
+        }
+        int generation = ScaledDrawableCache.getInstance().getGeneration(mRightView.getContext());
+        if (mRightImageRes == resource && mRightImageScale == scaleFactor && mRightImageGeneration == generation) {
+            return mRightView;
+        }
+        mRightImageRes = resource;
+        mRightImageScale = scaleFactor;
+        mRightImageGeneration = generation;
+        mRightView.setCompoundDrawables(null, null, loadScaledDrawable(mRightView, resource, scaleFactor), null);
+        return mRightView;
     }
 
     @Override
@@ -228,4 +266,143 @@ public class HeaderLayoutManager extends AbstractLayoutManager implements IHeade
         HeaderRelativeLayout layout = (HeaderRelativeLayout) getContentView();
         layout.setColor(color);
     }
+
+    public CharSequence getHeaderLeftText() {
+        return mLeftView == null ? null : mLeftView.getText();
+    }
+
+    public CharSequence getHeaderCenterText() {
+        return mCenterView == null ? null : mCenterView.getText();
+    }
+
+    public CharSequence getHeaderRightText() {
+        return mRightView == null ? null : mRightView.getText();
+    }
+
+    /**
+     * 开始一次头部的批量修改,所有修改在{@link HeaderTransaction#commit()}时统一生效,
+     * 内容没有变化的字段不会被修改,并且整个头部只发起一次重新布局;
+     * <code>
+     *     hlm.beginTransaction()
+     *        .setLeftImage(R.mipmap.arrow_left_normal, 0.8f)
+     *        .setCenterText("标题")
+     *        .setRightText("更多")
+     *        .commit();
+     * </code>
+     *
+     * @return 头部修改事务
+     */
+    public HeaderTransaction beginTransaction() {
+        return new HeaderTransaction();
+    }
+
+    private TextView applyText(TextView textView, @StringRes int resource) {
+        if (textView == null) {
+            return null;
+        }
+        return applyText(textView, textView.getResources().getText(resource));
+    }
+
+    private TextView applyText(TextView textView, CharSequence content) {
+        if (textView != null && !TextUtils.equals(textView.getText(), content)) {
+            textView.setText(content);
+        }
+        return textView;
+    }
+
+    private Drawable loadScaledDrawable(TextView textView, @DrawableRes int resource, float scaleFactor) {
+        return ScaledDrawableCache.getInstance().get(textView.getContext(), resource, scaleFactor);
+    }
+
+    /**
+     * 头部批量修改事务,未设置的字段保持不变;
+     */
+    public class HeaderTransaction {
+        private CharSequence mLeftText;
+        private CharSequence mCenterText;
+        private CharSequence mRightText;
+        private int mLeftImage;
+        private float mLeftScale = 1f;
+        private int mRightImage;
+        private float mRightScale = 1f;
+
+        private HeaderTransaction() {
+        }
+
+        public HeaderTransaction setLeftText(CharSequence content) {
+            this.mLeftText = content;
+            return this;
+        }
+
+        public HeaderTransaction setLeftText(@StringRes int resource) {
+            return setLeftText(getText(resource));
+        }
+
+        public HeaderTransaction setCenterText(CharSequence content) {
+            this.mCenterText = content;
+            return this;
+        }
+
+        public HeaderTransaction setCenterText(@StringRes int resource) {
+            return setCenterText(getText(resource));
+        }
+
+        public HeaderTransaction setRightText(CharSequence content) {
+            this.mRightText = content;
+            return this;
+        }
+
+        public HeaderTransaction setRightText(@StringRes int resource) {
+            return setRightText(getText(resource));
+        }
+
+        public HeaderTransaction setLeftImage(@DrawableRes int resource, float scaleFactor) {
+            this.mLeftImage = resource;
+            this.mLeftScale = scaleFactor;
+            return this;
+        }
+
+        public HeaderTransaction setRightImage(@DrawableRes int resource, float scaleFactor) {
+            this.mRightImage = resource;
+            this.mRightScale = scaleFactor;
+            return this;
+        }
+
+        /**
+         * 提交所有修改
+         */
+        public void commit() {
+            View content = getContentView();
+            HeaderRelativeLayout batchLayout = content instanceof HeaderRelativeLayout ? (HeaderRelativeLayout) content : null;
+            if (batchLayout != null) {
+                batchLayout.beginBatch();
+            }
+            try {
+                if (mLeftText != null) {
+                    applyText(mLeftView, mLeftText);
+                }
+                if (mCenterText != null) {
+                    applyText(mCenterView, mCenterText);
+                }
+                if (mRightText != null) {
+                    applyText(mRightView, mRightText);
+                }
+                if (mLeftImage != 0) {
+                    setHeaderLeftImage(mLeftImage, mLeftScale);
+                }
+                if (mRightImage != 0) {
+                    setHeaderRightImage(mRightImage, mRightScale);
+                }
+            } finally {
+                if (batchLayout != null) {
+                    batchLayout.endBatch();
+                }
+            }
+        }
+
+        private CharSequence getText(@StringRes int resource) {
+            View content = getContentView();
+            return content == null ? null : content.getResources().getText(resource);
+        }
+    }
 }
@@ -6,6 +6,7 @@ import android.widget.FrameLayout;
 import android.widget.TextView;
 
 import com.xn.uiframe.R;
+import com.xn.uiframe.utils.StatusTextPinner;
 
 
 /**
@@ -16,6 +17,15 @@ import com.xn.uiframe.R;
 public class FooterView  extends FrameLayout implements OnFooterListener {
     public TextView mLoadTv;
 
+    // 所有状态文字
+    private static final String TEXT_PULL = "上拉加载";
+    private static final String TEXT_RELEASE = "松开加载";
+    private static final String TEXT_READY = "准备加载";
+    private static final String TEXT_LOADING = "正在加载";
+    private static final String TEXT_SUCCESS = "加载成功";
+    private static final String TEXT_FAIL = "加载失败";
+    private static final String TEXT_CANCEL = "加载取消";
+
     public FooterView(Context context) {
         super(context);
         LayoutInflater.from(context).inflate(R.layout.ui_frame_refresh_footer, this, true);
@@ -28,7 +38,7 @@ public class FooterView  extends FrameLayout implements OnFooterListener {
      */
     @Override
     public void onLoadBefore(int scrollY) {
-        mLoadTv.setText("上拉加载");
+        StatusTextPinner.setText(mLoadTv, TEXT_PULL);
     }
 
     /**
@@ -37,7 +47,7 @@ public class FooterView  extends FrameLayout implements OnFooterListener {
      */
     @Override
     public void onLoadAfter(int scrollY) {
-        mLoadTv.setText("松开加载");
+        StatusTextPinner.setText(mLoadTv, TEXT_RELEASE);
     }
 
     /**
@@ -46,7 +56,7 @@ public class FooterView  extends FrameLayout implements OnFooterListener {
      */
     @Override
     public void onLoadReady(int scrollY) {
-        mLoadTv.setText("准备加载");
+        StatusTextPinner.setText(mLoadTv, TEXT_READY);
     }
 
     /**
@@ -55,7 +65,7 @@ public class FooterView  extends FrameLayout implements OnFooterListener {
      */
     @Override
     public void onLoading(int scrollY) {
-        mLoadTv.setText("正在加载");
+        StatusTextPinner.setText(mLoadTv, TEXT_LOADING);
     }
 
     /**
@@ -65,7 +75,7 @@ public class FooterView  extends FrameLayout implements OnFooterListener {
      */
     @Override
     public void onLoadComplete(int scrollY, boolean isLoadSuccess) {
-        mLoadTv.setText(isLoadSuccess ? "加载成功" : "加载失败");
+        StatusTextPinner.setText(mLoadTv, isLoadSuccess ? TEXT_SUCCESS : TEXT_FAIL);
     }
 
     /**
@@ -74,6 +84,6 @@ public class FooterView  extends FrameLayout implements OnFooterListener {
      */
     @Override
     public void onLoadCancel(int scrollY) {
-        mLoadTv.setText("加载取消");
+        StatusTextPinner.setText(mLoadTv, TEXT_CANCEL);
     }
 }
@@ -6,6 +6,7 @@ import android.widget.FrameLayout;
 import android.widget.TextView;
 
 import com.xn.uiframe.R;
+import com.xn.uiframe.utils.StatusTextPinner;
 
 /**
  * 默认的下拉刷新头部   可以按照这个例子 自定义头部
@@ -16,6 +17,14 @@ public class HeaderView extends FrameLayout implements OnHeaderListener {
 
     public TextView mRefreshTv;
 
+    // 所有状态文字
+    private static final String TEXT_PULL = "下拉刷新";
+    private static final String TEXT_RELEASE = "松开刷新";
+    private static final String TEXT_REFRESHING = "正在刷新";
+    private static final String TEXT_SUCCESS = "刷新成功";
+    private static final String TEXT_FAIL = "刷新失败";
+    private static final String TEXT_CANCEL = "取消刷新";
+
     public HeaderView(Context context) {
         super(context);
         LayoutInflater.from(context).inflate(R.layout.ui_frame_refresh_header, this, true);
@@ -28,7 +37,7 @@ public class HeaderView extends FrameLayout implements OnHeaderListener {
      */
     @Override
     public void onRefreshBefore(int scrollY,int refreshHeight,int headerHeight) {
-        mRefreshTv.setText("下拉刷新");
+        StatusTextPinner.setText(mRefreshTv, TEXT_PULL);
     }
 
     /**
@@ -37,7 +46,7 @@ public class HeaderView extends FrameLayout implements OnHeaderListener {
      */
     @Override
     public void onRefreshAfter(int scrollY,int refreshHeight,int headerHeight) {
-        mRefreshTv.setText("松开刷新");
+        StatusTextPinner.setText(mRefreshTv, TEXT_RELEASE);
     }
     /**
      * 准备刷新
@@ -54,7 +63,7 @@ public class HeaderView extends FrameLayout implements OnHeaderListener {
      */
     @Override
     public void onRefreshing(int scrollY,int refreshHeight,int headerHeight) {
-        mRefreshTv.setText("正在刷新");
+        StatusTextPinner.setText(mRefreshTv, TEXT_REFRESHING);
     }
 
     /**
@@ -64,7 +73,7 @@ public class HeaderView extends FrameLayout implements OnHeaderListener {
      */
     @Override
     public void onRefreshComplete(int scrollY,int refreshHeight,int headerHeight, boolean isRefreshSuccess) {
-        mRefreshTv.setText(isRefreshSuccess ? "刷新成功" : "刷新失败");
+        StatusTextPinner.setText(mRefreshTv, isRefreshSuccess ? TEXT_SUCCESS : TEXT_FAIL);
     }
 
     /**
@@ -73,6 +82,6 @@ public class HeaderView extends FrameLayout implements OnHeaderListener {
      */
     @Override
     public void onRefreshCancel(int scrollY,int refreshHeight,int headerHeight) {
-        mRefreshTv.setText("取消刷新");
+        StatusTextPinner.setText(mRefreshTv, TEXT_CANCEL);
     }
 }
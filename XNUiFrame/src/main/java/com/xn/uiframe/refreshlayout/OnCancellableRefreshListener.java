@@ -0,0 +1,22 @@
+package com.xn.uiframe.refreshlayout;
+
+/**
+ * 带取消凭证的下拉刷新 加载更多接口,
+ * 实现该接口后RefreshLayout不再回调{@link OnRefreshListener#onRefresh()},{@link OnRefreshListener#onLoadMore()},
+ * 而是回调带{@link RefreshToken}的方法,超时或重试后旧的凭证会被取消;
+ */
+
+public interface OnCancellableRefreshListener extends OnRefreshListener {
+
+    /**
+     * 下拉刷新回调
+     * @param token 本次刷新的凭证
+     */
+    void onRefresh(RefreshToken token);
+
+    /**
+     * 上拉加载更多回调
+     * @param token 本次加载的凭证
+     */
+    void onLoadMore(RefreshToken token);
+}
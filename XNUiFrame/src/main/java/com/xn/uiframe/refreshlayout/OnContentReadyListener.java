@@ -0,0 +1,14 @@
+package com.xn.uiframe.refreshlayout;
+
+/**
+ * 首次内容展示回调接口,用来统计从发起自动刷新到内容展示的耗时;
+ */
+
+public interface OnContentReadyListener {
+
+    /**
+     * 内容已经展示
+     * @param elapsedMillis 从发起自动刷新到内容展示的耗时 ms
+     */
+    void onContentReady(long elapsedMillis);
+}
@@ -0,0 +1,25 @@
+package com.xn.uiframe.refreshlayout;
+
+/**
+ * 下拉/上拉进度回调接口,与{@link OnHeaderListener},{@link OnFooterListener}的状态回调分开,
+ * 每一帧最多回调一次,只回调正在拉动的一侧,回到原位时该侧最后回调一次进度0,可以用来实现跟随拉动距离变化的动画效果;
+ */
+
+public interface OnPullProgressListener {
+
+    /**
+     * 下拉进度
+     * @param fraction 下拉距离与刷新高度的比值, 0表示未下拉, 大于等于1表示松开即可刷新
+     * @param scrollY 下拉移动的y值
+     * @param refreshHeight 刷新的高度
+     */
+    void onHeaderPullProgress(float fraction, int scrollY, int refreshHeight);
+
+    /**
+     * 上拉进度
+     * @param fraction 超出内容底部的上拉距离与加载高度的比值, 0表示未上拉, 大于等于1表示松开即可加载
+     * @param scrollY 上拉移动的y值
+     * @param loadHeight 加载的高度,即底部视图的高度
+     */
+    void onFooterPullProgress(float fraction, int scrollY, int loadHeight);
+}
@@ -0,0 +1,39 @@
+package com.xn.uiframe.refreshlayout;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 列表页面快照适配接口: 刷新成功后保存当前页面数据,下次进入界面时先展示保存的快照,同时在后台刷新;
+ * 页面数据由调用方按紧凑的二进制格式读写,参见{@link com.xn.uiframe.utils.PageSnapshotStore};
+ */
+
+public interface PageSnapshotAdapter<T> {
+
+    /**
+     * 在主线程调用,刷新成功后获得需要保存的页面数据;
+     * 返回的对象会在后台线程中写入文件,需要是之后不再修改的副本;
+     *
+     * @return 页面数据,为null时不保存
+     */
+    T getSnapshotPage();
+
+    /**
+     * 在后台线程调用,写入页面数据
+     */
+    void writePage(DataOutputStream out, T page) throws IOException;
+
+    /**
+     * 在后台线程调用,读取页面数据
+     */
+    T readPage(DataInputStream in) throws IOException;
+
+    /**
+     * 在主线程调用,展示读取到的快照;如果读取完成前刷新已经成功,则不会回调
+     *
+     * @param page      页面数据
+     * @param ageMillis 快照保存至今的时间 ms
+     */
+    void onSnapshotLoaded(T page, long ageMillis);
+}
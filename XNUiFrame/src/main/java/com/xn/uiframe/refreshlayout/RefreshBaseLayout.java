@@ -26,6 +26,8 @@ public class RefreshBaseLayout extends ViewGroup {
     public OnHeaderListener mOnHeaderListener;
     //底部上啦监听接口
     public OnFooterListener mOnFooterListener;
+    //拉动进度监听接口
+    public OnPullProgressListener mOnPullProgressListener;
     // 当滚动到内容最底部时Y轴所需要的滑动值
     public int bottomScroll;
     // 最后一个childview的index
@@ -55,9 +57,24 @@ public class RefreshBaseLayout extends ViewGroup {
         this.mOnFooterListener = mOnFooterListener;
     }
 
+    /**
+     * 设置拉动进度监听回调,每一帧最多回调一次
+     * @param mOnPullProgressListener
+     */
+    public void setOnPullProgressListener(OnPullProgressListener mOnPullProgressListener) {
+        this.mOnPullProgressListener = mOnPullProgressListener;
+    }
+
     @Override
     protected void onFinishInflate() {
         super.onFinishInflate();
+        initContentIndex();
+    }
+
+    /**
+     * 记录内容视图的范围,在添加头部,底部之前调用;用代码构造时在添加完内容视图后调用
+     */
+    protected void initContentIndex() {
         //获取最后一个子view的index 等于所有子view的数量-1
         lastChildIndex = getChildCount() - 1;
     }
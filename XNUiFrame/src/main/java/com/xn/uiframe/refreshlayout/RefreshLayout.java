@@ -3,6 +3,7 @@ package com.xn.uiframe.refreshlayout;
 import android.animation.Animator;
 import android.animation.ValueAnimator;
 import android.content.Context;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
@@ -35,6 +36,54 @@ public class RefreshLayout extends RefreshInterceptLayout {
     //操作状态  -1是默认的状态   0刷新   1加载
     private int  actionStatus=-1;
 
+    //自动刷新是否在等待第一次布局完成
+    private boolean isAutoRefreshPending=false;
+    //自动刷新时是否在头部动画开始前就发起数据加载
+    private boolean isLoadInParallel=false;
+    //发起自动刷新的时间,用于统计首次内容展示的耗时
+    private long autoRefreshStartTime=0;
+    //自动刷新的头部动画
+    private ValueAnimator autoRefreshAnimator;
+    //滚动到加载状态的动画,下拉刷新取消加载更多时需要停止
+    private ValueAnimator loadStatusAnimator;
+    //首次内容展示回调
+    private OnContentReadyListener contentReadyListener;
+    //布局完成后执行的自动刷新动画
+    private final Runnable autoRefreshTask = new Runnable() {
+        @Override
+        public void run() {
+            performAutoRefresh();
+        }
+    };
+
+    //刷新/加载的超时时间 ms, 小于等于0表示不超时
+    private long refreshTimeout = 0;
+    //超时后的最大重试次数
+    private int maxRetryCount = 0;
+    //第一次重试前的等待时间 ms, 之后每次重试翻倍
+    private long retryBackoff = 1000;
+    //刷新/加载请求的代数,每发起一次请求加1,用于丢弃过期的结果
+    private int generationSeed = 0;
+    //下拉刷新开始时是否取消进行中的加载更多
+    private boolean isCancelLoadOnRefresh = false;
+    //下拉刷新请求
+    private final RequestCycle refreshRequest = new RequestCycle(true);
+    //加载更多请求
+    private final RequestCycle loadRequest = new RequestCycle(false);
+
+    //是否已经安排了下一帧的进度回调
+    private boolean isProgressPending=false;
+    //上一次回调进度的一侧: 0未拉动 1头部 2底部, 回到原位时只通知这一侧进度归0
+    private int progressSide=0;
+    //每帧最多执行一次的进度回调
+    private final Runnable progressDispatcher = new Runnable() {
+        @Override
+        public void run() {
+            isProgressPending = false;
+            dispatchPullProgress();
+        }
+    };
+
     public RefreshLayout(Context context) {
         super(context);
     }
@@ -70,14 +119,64 @@ public class RefreshLayout extends RefreshInterceptLayout {
 
 
     /**
-     * 自动刷新
+     * 自动刷新,不再单独测量头部,使用正常布局过程中测量的头部高度;
+     * 如果还没有完成第一次布局(例如在onCreate中调用),则等待布局完成后再执行头部动画;
      */
     public void autoRefresh(){
-        if(!isAutoRefresh)return;
+        if(!isAutoRefresh || isRefreshing)return;
         isRefreshing=true;
-        measureView(header);
+        autoRefreshStartTime = SystemClock.uptimeMillis();
+        if (isLoadInParallel) {
+            startRefreshRequest();
+        }
+        if (headerContent == null || headerContent.getMeasuredHeight() == 0) {
+            isAutoRefreshPending = true;
+            return;
+        }
+        performAutoRefresh();
+    }
+
+    /**
+     * 设置自动刷新时是否在头部动画开始前就发起数据加载,数据加载与头部动画并行执行;
+     * @param loadInParallel
+     */
+    public void setLoadInParallel(boolean loadInParallel) {
+        this.isLoadInParallel = loadInParallel;
+    }
+
+    /**
+     * 设置首次内容展示回调,自动刷新后第一次成功的stopRefresh时回调耗时;
+     * @param listener
+     */
+    public void setOnContentReadyListener(OnContentReadyListener listener) {
+        this.contentReadyListener = listener;
+    }
+
+    /**
+     * 内容在刷新完成之前已经展示(例如先展示保存的快照)时调用,回调首次内容展示的耗时,
+     * 之后本次自动刷新成功时不再重复回调;
+     * @return true:已回调  false:没有进行中的自动刷新统计
+     */
+    public boolean dispatchContentReady() {
+        if (autoRefreshStartTime <= 0) {
+            return false;
+        }
+        if (contentReadyListener != null) {
+            contentReadyListener.onContentReady(SystemClock.uptimeMillis() - autoRefreshStartTime);
+        }
+        autoRefreshStartTime = 0;
+        return true;
+    }
+
+    /**
+     * 执行自动刷新的头部动画
+     */
+    private void performAutoRefresh() {
+        isAutoRefreshPending = false;
+        //数据已经提前返回,不再执行动画
+        if (!isRefreshing) return;
         int end = headerContent.getMeasuredHeight();
-        performAnim(0, -end, new AnimListener() {
+        autoRefreshAnimator = performAnim(getScrollY(), -end, new AnimListener() {
             @Override
             public void onGoing() {
                 updateStatus(status.REFRESH_READY);
@@ -85,10 +184,21 @@ public class RefreshLayout extends RefreshInterceptLayout {
 
             @Override
             public void onEnd() {
-                updateStatus(status.REFRESH_DOING);
+                autoRefreshAnimator = null;
+                if (isRefreshing) {
+                    updateStatus(status.REFRESH_DOING);
+                }
             }
         });
+    }
 
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        super.onLayout(changed, l, t, r, b);
+        if (isAutoRefreshPending && headerContent != null && headerContent.getMeasuredHeight() > 0) {
+            isAutoRefreshPending = false;
+            post(autoRefreshTask);
+        }
     }
 
     /**
@@ -105,6 +215,49 @@ public class RefreshLayout extends RefreshInterceptLayout {
                 MeasureSpec.UNSPECIFIED);
         v.measure(w, h);
     }
+    /**
+     * 设置刷新/加载的超时时间,超时后自动取消本次凭证并stopRefresh(false)/stopLoadMore(false),
+     * 如果设置了重试次数则先按退避时间重试;
+     * @param timeout 超时时间 ms, 小于等于0表示不超时
+     */
+    public void setRefreshTimeout(long timeout) {
+        this.refreshTimeout = timeout;
+    }
+
+    /**
+     * 设置超时后的重试策略
+     * @param maxRetryCount 最大重试次数, 0表示不重试
+     * @param initialBackoff 第一次重试前的等待时间 ms, 之后每次重试翻倍
+     */
+    public void setRetryPolicy(int maxRetryCount, long initialBackoff) {
+        this.maxRetryCount = Math.max(0, maxRetryCount);
+        this.retryBackoff = Math.max(0, initialBackoff);
+    }
+
+    /**
+     * 设置下拉刷新开始时是否取消进行中的加载更多,取消后加载更多的结果会被丢弃;
+     * @param cancel true:取消  false:不取消
+     */
+    public void setCancelLoadOnRefresh(boolean cancel) {
+        this.isCancelLoadOnRefresh = cancel;
+    }
+
+    /**
+     * 获得当前下拉刷新的凭证
+     * @return 没有进行中的刷新时返回null
+     */
+    public RefreshToken getRefreshToken() {
+        return refreshRequest.token;
+    }
+
+    /**
+     * 获得当前加载更多的凭证
+     * @return 没有进行中的加载时返回null
+     */
+    public RefreshToken getLoadMoreToken() {
+        return loadRequest.token;
+    }
+
     /**
      * 设置接口回调
      * @param listener
@@ -207,11 +360,63 @@ public class RefreshLayout extends RefreshInterceptLayout {
 
 
 
+    @Override
+    protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+        super.onScrollChanged(l, t, oldl, oldt);
+        if (mOnPullProgressListener != null && !isProgressPending) {
+            isProgressPending = true;
+            postOnAnimation(progressDispatcher);
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        //重新挂载(Tab切换,Fragment视图复用等)时恢复进行中请求的超时及重试计时
+        refreshRequest.resume();
+        loadRequest.resume();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        //请求在离开窗口期间保持有效,只暂停计时,结果返回时仍然可以正常结束刷新/加载
+        refreshRequest.pause();
+        loadRequest.pause();
+        removeCallbacks(progressDispatcher);
+        isProgressPending = false;
+        super.onDetachedFromWindow();
+    }
+
     /**
-     * 刷新状态
+     * 按当前的滑动位置回调拉动进度
+     */
+    private void dispatchPullProgress() {
+        if (mOnPullProgressListener == null) {
+            return;
+        }
+        int scrollY = getScrollY();
+        int side = scrollY < 0 ? 1 : (scrollY > 0 ? 2 : progressSide);
+        if (side == 1 && headerContent != null) {
+            int refreshHeight = headerContent.getMeasuredHeight();
+            float fraction = refreshHeight > 0 ? Math.max(0, -scrollY) / (float) refreshHeight : 0f;
+            mOnPullProgressListener.onHeaderPullProgress(fraction, scrollY, refreshHeight);
+        } else if (side == 2 && footer != null) {
+            //底部视图在内容之后bottomScroll的位置,超出bottomScroll的部分才是上拉的距离,与松开加载的判断一致
+            int loadHeight = footer.getMeasuredHeight();
+            float fraction = loadHeight > 0 ? Math.max(0, scrollY - bottomScroll) / (float) loadHeight : 0f;
+            mOnPullProgressListener.onFooterPullProgress(fraction, scrollY, loadHeight);
+        }
+        progressSide = scrollY == 0 ? 0 : side;
+    }
+
+    /**
+     * 刷新状态, 只有状态发生变化时才回调头部和底部的状态接口, 拉动过程中的连续变化通过{@link OnPullProgressListener}回调
      * @param status
      */
     private void updateStatus(RefreshStatus status) {
+        if (this.status == status) {
+            return;
+        }
         this.status = status;
         int scrollY = getScrollY();
         // 判断本次触摸系列事件结束时,Layout的状态
@@ -235,8 +440,10 @@ public class RefreshLayout extends RefreshInterceptLayout {
             //刷新中
             case REFRESH_DOING:
                 mOnHeaderListener.onRefreshing(scrollY,headerContent.getMeasuredHeight(),header.getMeasuredHeight());
-                if(listener!=null)
-                    listener.onRefresh();
+                //并行加载时请求已经在动画开始前发起
+                if (refreshRequest.token == null) {
+                    startRefreshRequest();
+                }
                 break;
             //刷新完成
             case REFRESH_COMPLETE:
@@ -261,8 +468,8 @@ public class RefreshLayout extends RefreshInterceptLayout {
             //加载中
             case LOAD_DOING:
                 mOnFooterListener.onLoading(scrollY);
-                if(listener!=null)
-                    listener.onLoadMore();
+                loadRequest.retryCount = 0;
+                loadRequest.start();
                 break;
             //加载完成
             case LOAD_COMPLETE:
@@ -275,6 +482,41 @@ public class RefreshLayout extends RefreshInterceptLayout {
         }
     }
 
+    /**
+     * 发起下拉刷新请求
+     */
+    private void startRefreshRequest() {
+        if (isCancelLoadOnRefresh && loadRequest.token != null) {
+            cancelLoadMore();
+        }
+        refreshRequest.retryCount = 0;
+        refreshRequest.start();
+    }
+
+    /**
+     * 下拉刷新开始时取消进行中的加载更多,与stopLoadMore(false)一样通知底部加载结束;
+     * 底部还在显示时直接收回,随后的头部动画从默认位置开始,不与收回底部的动画冲突;
+     */
+    private void cancelLoadMore() {
+        loadRequest.finish();
+        isLoadSuccess = false;
+        isLoading = false;
+        //先停止滚动到加载状态的动画,否则动画会在刷新接管之后把底部重新拉出来
+        if (loadStatusAnimator != null) {
+            ValueAnimator animator = loadStatusAnimator;
+            loadStatusAnimator = null;
+            animator.cancel();
+        }
+        int scrollY = getScrollY();
+        if (mOnFooterListener != null) {
+            mOnFooterListener.onLoadComplete(scrollY, false);
+        }
+        if (scrollY > 0) {
+            scrollTo(0, 0);
+            updateStatus(RefreshStatus.DEFAULT);
+        }
+    }
+
     /**
      * 默认状态
      */
@@ -293,7 +535,7 @@ public class RefreshLayout extends RefreshInterceptLayout {
         isLoading=true;
         int start = getScrollY();
         int end = footer.getMeasuredHeight() + bottomScroll;
-        performAnim(start, end, new AnimListener() {
+        loadStatusAnimator = performAnim(start, end, new AnimListener() {
             @Override
             public void onGoing() {
                 updateStatus(status.LOAD_READY);
@@ -301,7 +543,11 @@ public class RefreshLayout extends RefreshInterceptLayout {
 
             @Override
             public void onEnd() {
-                updateStatus(status.LOAD_DOING);
+                loadStatusAnimator = null;
+                //被取消的动画同样会回调onEnd,加载已经取消时不再进入加载状态
+                if (isLoading) {
+                    updateStatus(status.LOAD_DOING);
+                }
             }
         });
     }
@@ -351,8 +597,21 @@ public class RefreshLayout extends RefreshInterceptLayout {
      * @param isSuccess
      */
     public void stopRefresh(boolean isSuccess) {
+        refreshRequest.finish();
         isRefreshSuccess = isSuccess;
         isRefreshing=false;
+        isAutoRefreshPending = false;
+        removeCallbacks(autoRefreshTask);
+        if (autoRefreshAnimator != null) {
+            autoRefreshAnimator.cancel();
+            autoRefreshAnimator = null;
+        }
+        if (autoRefreshStartTime > 0) {
+            if (isSuccess && contentReadyListener != null) {
+                contentReadyListener.onContentReady(SystemClock.uptimeMillis() - autoRefreshStartTime);
+            }
+            autoRefreshStartTime = 0;
+        }
         scrolltoDefaultStatus(RefreshStatus.REFRESH_COMPLETE);
     }
 
@@ -361,11 +620,40 @@ public class RefreshLayout extends RefreshInterceptLayout {
      * @param isSuccess
      */
     public void stopLoadMore(boolean isSuccess) {
+        loadRequest.finish();
         isLoadSuccess = isSuccess;
         isLoading=false;
         scrolltoDefaultStatus(RefreshStatus.LOAD_COMPLETE);
     }
 
+    /**
+     * 停止刷新,只有代数与当前刷新请求一致时才生效,过期的结果直接丢弃
+     * @param generation 刷新凭证的代数 {@link RefreshToken#getGeneration()}
+     * @param isSuccess
+     * @return true:生效  false:结果已过期被丢弃
+     */
+    public boolean stopRefresh(int generation, boolean isSuccess) {
+        if (!refreshRequest.isCurrent(generation)) {
+            return false;
+        }
+        stopRefresh(isSuccess);
+        return true;
+    }
+
+    /**
+     * 停止加载更多,只有代数与当前加载请求一致时才生效,过期的结果直接丢弃
+     * @param generation 加载凭证的代数 {@link RefreshToken#getGeneration()}
+     * @param isSuccess
+     * @return true:生效  false:结果已过期被丢弃
+     */
+    public boolean stopLoadMore(int generation, boolean isSuccess) {
+        if (!loadRequest.isCurrent(generation)) {
+            return false;
+        }
+        stopLoadMore(isSuccess);
+        return true;
+    }
+
     /**
      * 执行滑动
      * @param dy
@@ -380,7 +668,7 @@ public class RefreshLayout extends RefreshInterceptLayout {
      * @param end
      * @param listener
      */
-    private void performAnim(int start, int end, final AnimListener listener) {
+    private ValueAnimator performAnim(int start, int end, final AnimListener listener) {
         ValueAnimator animator = ValueAnimator.ofInt(start, end);
         animator.setDuration(SCROLL_TIME).start();
         animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
@@ -413,6 +701,141 @@ public class RefreshLayout extends RefreshInterceptLayout {
 
             }
         });
+        return animator;
+    }
+
+    /**
+     * 一次刷新或加载更多请求的生命周期: 凭证,超时及重试
+     */
+    private class RequestCycle {
+        // true:刷新 false:加载更多
+        final boolean isRefresh;
+        // 当前的凭证,请求结束后为null
+        RefreshToken token;
+        // 当前已经重试的次数
+        int retryCount;
+        // 超时的时间点及下一次重试的时间点(uptimeMillis), 0表示没有
+        long timeoutAt;
+        long retryAt;
+        // 超时任务
+        final Runnable timeoutTask = new Runnable() {
+            @Override
+            public void run() {
+                onTimeout();
+            }
+        };
+        // 重试任务
+        final Runnable retryTask = new Runnable() {
+            @Override
+            public void run() {
+                retryAt = 0;
+                if (token != null) {
+                    start();
+                }
+            }
+        };
+
+        RequestCycle(boolean isRefresh) {
+            this.isRefresh = isRefresh;
+        }
+
+        /**
+         * 发起一次请求,生成新的凭证并开始超时计时
+         */
+        void start() {
+            if (token != null) {
+                token.cancel();
+            }
+            token = new RefreshToken(isRefresh, ++generationSeed);
+            removeCallbacks(timeoutTask);
+            retryAt = 0;
+            timeoutAt = 0;
+            if (refreshTimeout > 0) {
+                timeoutAt = SystemClock.uptimeMillis() + refreshTimeout;
+                postDelayed(timeoutTask, refreshTimeout);
+            }
+            if (listener == null) {
+                return;
+            }
+            if (listener instanceof OnCancellableRefreshListener) {
+                OnCancellableRefreshListener cancellable = (OnCancellableRefreshListener) listener;
+                if (isRefresh) {
+                    cancellable.onRefresh(token);
+                } else {
+                    cancellable.onLoadMore(token);
+                }
+            } else if (isRefresh) {
+                listener.onRefresh();
+            } else {
+                listener.onLoadMore();
+            }
+        }
+
+        /**
+         * 请求超时,取消当前凭证,按重试策略重试或者结束请求
+         */
+        void onTimeout() {
+            if (token == null) {
+                return;
+            }
+            timeoutAt = 0;
+            token.cancel();
+            if (retryCount < maxRetryCount) {
+                long backoff = retryBackoff << retryCount;
+                retryCount++;
+                retryAt = SystemClock.uptimeMillis() + backoff;
+                postDelayed(retryTask, backoff);
+            } else if (isRefresh) {
+                stopRefresh(false);
+            } else {
+                stopLoadMore(false);
+            }
+        }
+
+        /**
+         * 结束请求,取消凭证及超时,重试任务
+         */
+        void finish() {
+            removeCallbacks(timeoutTask);
+            removeCallbacks(retryTask);
+            timeoutAt = 0;
+            retryAt = 0;
+            if (token != null) {
+                token.cancel();
+                token = null;
+            }
+        }
+
+        /**
+         * 暂停超时及重试计时,凭证保持有效
+         */
+        void pause() {
+            removeCallbacks(timeoutTask);
+            removeCallbacks(retryTask);
+        }
+
+        /**
+         * 按原来的时间点恢复超时或重试计时,已经过期的立即执行
+         */
+        void resume() {
+            pause();
+            if (token == null) {
+                return;
+            }
+            long now = SystemClock.uptimeMillis();
+            if (retryAt > 0) {
+                postDelayed(retryTask, Math.max(0, retryAt - now));
+            } else if (timeoutAt > 0) {
+                postDelayed(timeoutTask, Math.max(0, timeoutAt - now));
+            }
+        }
+
+        /**
+         * 给定的代数是否是当前有效的请求
+         */
+        boolean isCurrent(int generation) {
+            return token != null && !token.isCancelled() && token.getGeneration() == generation;
+        }
     }
 
     interface AnimListener {
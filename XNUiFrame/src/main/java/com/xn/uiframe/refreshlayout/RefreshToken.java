@@ -0,0 +1,38 @@
+package com.xn.uiframe.refreshlayout;
+
+/**
+ * 一次刷新或加载更多的凭证,当刷新超时,重试或刷新结束后该凭证会被取消,
+ * 数据返回时先检查{@link #isCancelled()},已取消的结果应该直接丢弃;
+ * 每个凭证带有一个递增的代数{@link #getGeneration()},结束刷新时可以通过
+ * {@link RefreshLayout#stopRefresh(int, boolean)}带上代数,过期的结果会被直接丢弃;
+ */
+
+public class RefreshToken {
+
+    // 是否是下拉刷新, false表示加载更多
+    private final boolean isRefresh;
+    // 请求的代数
+    private final int generation;
+    private volatile boolean isCancelled = false;
+
+    RefreshToken(boolean isRefresh, int generation) {
+        this.isRefresh = isRefresh;
+        this.generation = generation;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public boolean isRefresh() {
+        return isRefresh;
+    }
+
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    void cancel() {
+        isCancelled = true;
+    }
+}
@@ -0,0 +1,191 @@
+package com.xn.uiframe.replay;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * 布局过程记录文件格式: PowerfulContainerLayout每一次measure,layout过程的输入(MeasureSpec或容器位置,
+ * 各层级的可见状态,Margin,动画进度,子视图测量结果)和输出(传给子视图的MeasureSpec或子视图位置),
+ * 使用DataOutputStream紧凑地写入二进制文件;
+ * <br>
+ * 该类不依赖Android API,设备端由{@link com.xn.uiframe.utils.LayoutPassRecorder}写入,
+ * 主机端由{@link LayoutPassReplayer}读取并重放;
+ * <pre>
+ * 文件头: int MAGIC, short VERSION
+ * 每个过程: byte type, long costNanos, int[4] args, short managerCount
+ *   每个层级: int layer, byte visibility(最高位为滚动联动折叠标记), int[4] margins, float phaseX, float phaseY, short viewCount
+ *     每个视图: byte visibility, float phaseX, float phaseY, int measuredWidth, int measuredHeight, int[4] outputs
+ * </pre>
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class LayoutPassLog {
+
+    public static final int MAGIC = 0x55464C52;
+    public static final short VERSION = 2;
+
+    /**
+     * measure过程: args为[widthSpec, heightSpec, 0, 0], 视图outputs为[widthSpec, heightSpec, 0, 0]
+     */
+    public static final byte TYPE_MEASURE = 1;
+    /**
+     * layout过程: args为[left, top, right, bottom], 视图outputs为[left, top, right, bottom]
+     */
+    public static final byte TYPE_LAYOUT = 2;
+
+    /**
+     * 一次measure或layout过程
+     */
+    public static class Pass {
+        public byte type;
+        public long costNanos;
+        public final int[] args = new int[4];
+        public final List<Manager> managers = new ArrayList<>();
+    }
+
+    /**
+     * 一个层级的状态
+     */
+    public static class Manager {
+        public int layer;
+        public int visibility;
+        /**
+         * Center层是否开启了滚动联动折叠,开启时Header,Top层不占用Center的测量高度
+         */
+        public boolean scrollLinkedCollapse;
+        /**
+         * 第一个视图的Margin: left, top, right, bottom
+         */
+        public final int[] margins = new int[4];
+        public float phaseX;
+        public float phaseY;
+        public final List<ViewRecord> views = new ArrayList<>();
+    }
+
+    /**
+     * 一个视图的状态及布局结果
+     */
+    public static class ViewRecord {
+        public int visibility;
+        /**
+         * 视图的动画进度,即层级动画进度与视图自身动画进度的乘积
+         */
+        public float phaseX = 1f;
+        public float phaseY = 1f;
+        public int measuredWidth;
+        public int measuredHeight;
+        /**
+         * 布局结果,视图在本次过程中没有被测量或布局时为0
+         */
+        public final int[] outputs = new int[4];
+        /**
+         * 视图在本次measure过程中是否被测量, layout过程总是记录视图当前的位置
+         */
+        public boolean touched;
+    }
+
+    public static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    public static void writePass(DataOutputStream out, Pass pass) throws IOException {
+        out.writeByte(pass.type);
+        out.writeLong(pass.costNanos);
+        writeInts(out, pass.args);
+        out.writeShort(pass.managers.size());
+        for (Manager manager : pass.managers) {
+            out.writeInt(manager.layer);
+            out.writeByte(manager.scrollLinkedCollapse ? manager.visibility | 0x80 : manager.visibility);
+            writeInts(out, manager.margins);
+            out.writeFloat(manager.phaseX);
+            out.writeFloat(manager.phaseY);
+            out.writeShort(manager.views.size());
+            for (ViewRecord view : manager.views) {
+                out.writeByte(view.touched ? view.visibility | 0x80 : view.visibility);
+                out.writeFloat(view.phaseX);
+                out.writeFloat(view.phaseY);
+                out.writeInt(view.measuredWidth);
+                out.writeInt(view.measuredHeight);
+                writeInts(out, view.outputs);
+            }
+        }
+    }
+
+    /**
+     * 读取记录文件中的所有过程
+     *
+     * @param in 记录文件
+     * @return 过程列表
+     * @throws IOException 文件格式错误或读取失败
+     */
+    public static List<Pass> read(InputStream in) throws IOException {
+        DataInputStream input = new DataInputStream(in);
+        if (input.readInt() != MAGIC) {
+            throw new IOException("不是布局过程记录文件.");
+        }
+        short version = input.readShort();
+        if (version != VERSION) {
+            throw new IOException("不支持的记录文件版本: " + version);
+        }
+        List<Pass> passes = new ArrayList<>();
+        while (true) {
+            int type;
+            try {
+                type = input.readByte();
+            } catch (EOFException e) {
+                break;
+            }
+            Pass pass = new Pass();
+            pass.type = (byte) type;
+            pass.costNanos = input.readLong();
+            readInts(input, pass.args);
+            int managerCount = input.readShort();
+            for (int i = 0; i < managerCount; i++) {
+                Manager manager = new Manager();
+                manager.layer = input.readInt();
+                int managerFlags = input.readByte() & 0xff;
+                manager.scrollLinkedCollapse = (managerFlags & 0x80) != 0;
+                manager.visibility = managerFlags & 0x7f;
+                readInts(input, manager.margins);
+                manager.phaseX = input.readFloat();
+                manager.phaseY = input.readFloat();
+                int viewCount = input.readShort();
+                for (int j = 0; j < viewCount; j++) {
+                    ViewRecord view = new ViewRecord();
+                    int flags = input.readByte() & 0xff;
+                    view.touched = (flags & 0x80) != 0;
+                    view.visibility = flags & 0x7f;
+                    view.phaseX = input.readFloat();
+                    view.phaseY = input.readFloat();
+                    view.measuredWidth = input.readInt();
+                    view.measuredHeight = input.readInt();
+                    readInts(input, view.outputs);
+                    manager.views.add(view);
+                }
+                pass.managers.add(manager);
+            }
+            passes.add(pass);
+        }
+        return passes;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void readInts(DataInputStream in, int[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.xn.uiframe.replay;
+
+import com.xn.uiframe.layout.AbstractLayoutManager.Layer;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * 布局过程重放工具(主机端运行,不依赖Android API): 读取{@link LayoutPassLog}记录文件,
+ * 按各布局管理器的层级规则重新计算每个子视图的MeasureSpec和位置,与设备上记录的结果比较,输出不一致的地方;
+ * 同时可以与一份基准记录比较measure,layout的设备耗时分位数,检查性能退化;
+ * <p>使用方法</p>
+ * <code>
+ *     adb pull /sdcard/Android/data/包名/files/layout_pass.bin
+ *     java -cp XNUiFrame/build/intermediates/classes/debug com.xn.uiframe.replay.LayoutPassReplayer layout_pass.bin [baseline.bin]
+ * </code>
+ * 存在布局差异或耗时退化超过阈值(默认20%,可通过系统属性uiframe.replay.threshold修改)时进程返回1;
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class LayoutPassReplayer {
+
+    private static final int MODE_MASK = 0x3 << 30;
+    private static final int EXACTLY = 1 << 30;
+    private static final int VISIBLE = 0;
+    private static final int GONE = 8;
+
+    /**
+     * 求解器重复执行的次数,用于统计求解耗时
+     */
+    private static final int SOLVE_ITERATIONS = 100;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: LayoutPassReplayer <log> [baseline log]");
+            System.exit(2);
+        }
+        List<LayoutPassLog.Pass> passes = readLog(args[0]);
+        int mismatches = verify(passes);
+        System.out.println("passes=" + passes.size() + " mismatches=" + mismatches
+                + " solveNanos/pass=" + measureSolveNanos(passes));
+
+        boolean regressed = false;
+        if (args.length > 1) {
+            float threshold = Float.parseFloat(System.getProperty("uiframe.replay.threshold", "0.2"));
+            List<LayoutPassLog.Pass> baseline = readLog(args[1]);
+            regressed |= compareCost("measure", baseline, passes, LayoutPassLog.TYPE_MEASURE, threshold);
+            regressed |= compareCost("layout", baseline, passes, LayoutPassLog.TYPE_LAYOUT, threshold);
+        }
+        System.exit(mismatches > 0 || regressed ? 1 : 0);
+    }
+
+    private static List<LayoutPassLog.Pass> readLog(String path) throws IOException {
+        InputStream in = new FileInputStream(path);
+        try {
+            return LayoutPassLog.read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * 重新计算所有过程并与记录结果比较
+     *
+     * @param passes 记录的过程
+     * @return 不一致的视图个数
+     */
+    public static int verify(List<LayoutPassLog.Pass> passes) {
+        int mismatches = 0;
+        int[] expected = new int[4];
+        for (int p = 0; p < passes.size(); p++) {
+            LayoutPassLog.Pass pass = passes.get(p);
+            for (LayoutPassLog.Manager manager : pass.managers) {
+                for (int v = 0; v < manager.views.size(); v++) {
+                    LayoutPassLog.ViewRecord view = manager.views.get(v);
+                    boolean solved = solve(pass, manager, view, expected);
+                    if (!solved && pass.type == LayoutPassLog.TYPE_LAYOUT) {
+                        continue;
+                    }
+                    if (solved != view.touched || (solved && !Arrays.equals(expected, view.outputs))) {
+                        mismatches++;
+                        System.out.println("pass#" + p + (pass.type == LayoutPassLog.TYPE_MEASURE ? " measure" : " layout")
+                                + " layer=0x" + Integer.toHexString(manager.layer) + " view#" + v
+                                + " recorded=" + (view.touched ? Arrays.toString(view.outputs) : "skipped")
+                                + " replayed=" + (solved ? Arrays.toString(expected) : "skipped"));
+                    }
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * 统计求解器处理每个过程的平均耗时
+     */
+    private static long measureSolveNanos(List<LayoutPassLog.Pass> passes) {
+        if (passes.isEmpty()) {
+            return 0;
+        }
+        int[] expected = new int[4];
+        long start = System.nanoTime();
+        for (int i = 0; i < SOLVE_ITERATIONS; i++) {
+            for (LayoutPassLog.Pass pass : passes) {
+                for (LayoutPassLog.Manager manager : pass.managers) {
+                    for (LayoutPassLog.ViewRecord view : manager.views) {
+                        solve(pass, manager, view, expected);
+                    }
+                }
+            }
+        }
+        return (System.nanoTime() - start) / SOLVE_ITERATIONS / passes.size();
+    }
+
+    /**
+     * 按层级规则计算一个视图的布局结果,规则与各布局管理器的onMeasure,onLayout一致
+     *
+     * @return 该视图在本次过程中是否会被测量或布局
+     */
+    static boolean solve(LayoutPassLog.Pass pass, LayoutPassLog.Manager manager, LayoutPassLog.ViewRecord view, int[] out) {
+        Arrays.fill(out, 0);
+        int[] m = manager.margins;
+        if (pass.type == LayoutPassLog.TYPE_MEASURE) {
+            if (view.visibility != VISIBLE) {
+                return false;
+            }
+            int width = pass.args[0] & ~MODE_MASK;
+            int height = pass.args[1] & ~MODE_MASK;
+            int occupied = 0;
+            if (manager.layer == Layer.LAYER_PART_OF_BASIC_CENTER || manager.layer == Layer.LAYER_PART_OF_BASIC_CENTER_MASK) {
+                for (LayoutPassLog.Manager other : pass.managers) {
+                    if (other.layer < Layer.LAYER_PART_OF_BASIC_CENTER && other.visibility != GONE) {
+                        if (manager.scrollLinkedCollapse && other.layer <= Layer.LAYER_PART_OF_BASIC_TOP) {
+                            continue;
+                        }
+                        occupied += measuredHeightOf(other) + other.margins[1] + other.margins[3];
+                    }
+                }
+            }
+            out[0] = makeExactly((int) ((width - m[0] - m[2]) * view.phaseX));
+            out[1] = makeExactly((int) ((height - m[1] - m[3] - occupied) * view.phaseY));
+            return true;
+        }
+
+        int left = pass.args[0];
+        int top = pass.args[1];
+        int right = pass.args[2];
+        int bottom = pass.args[3];
+        int layer = manager.layer;
+        boolean visible = layer >= Layer.LAYER_FULL_SCREEN_EXTRA || layer == Layer.LAYER_PART_OF_BASIC_BOTTOM
+                ? manager.visibility == VISIBLE : view.visibility == VISIBLE;
+        if (!visible) {
+            return false;
+        }
+        int h = view.measuredHeight;
+        if (layer == Layer.LAYER_PART_OF_BASIC_HEADER) {
+            set(out, left + m[0], top + m[1], right - m[2], top + m[1] + h);
+        } else if (layer == Layer.LAYER_PART_OF_BASIC_TOP) {
+            int headerHeight = 0;
+            for (LayoutPassLog.Manager other : pass.managers) {
+                if (other.layer == Layer.LAYER_PART_OF_BASIC_HEADER) {
+                    if (other.visibility != GONE) {
+                        headerHeight = other.margins[1] + other.margins[3] + measuredHeightOf(other);
+                    }
+                    break;
+                }
+            }
+            int position = top + headerHeight + m[1];
+            set(out, left + m[0], position, right - m[2], position + h);
+        } else if (layer == Layer.LAYER_PART_OF_BASIC_BOTTOM) {
+            int position = bottom - m[1] - h;
+            set(out, left + m[0], position, right - m[2], position + h);
+        } else if (layer == Layer.LAYER_PART_OF_BASIC_CENTER || layer == Layer.LAYER_PART_OF_BASIC_CENTER_MASK) {
+            int upTop = 0;
+            for (LayoutPassLog.Manager other : pass.managers) {
+                if (other.layer <= Layer.LAYER_PART_OF_BASIC_TOP && other.visibility != GONE) {
+                    upTop += other.margins[1] + other.margins[3] + measuredHeightOf(other);
+                }
+            }
+            int position = top + m[1] + upTop;
+            set(out, left + m[0], position, right - m[2], position + h);
+        } else {
+            set(out, left + m[0], top + m[1], right - m[2], bottom - m[3]);
+        }
+        return true;
+    }
+
+    /**
+     * 比较两份记录中某类过程的设备耗时
+     *
+     * @return 是否退化超过阈值
+     */
+    private static boolean compareCost(String name, List<LayoutPassLog.Pass> baseline, List<LayoutPassLog.Pass> current,
+                                       byte type, float threshold) {
+        boolean regressed = false;
+        for (float percentile : new float[]{0.5f, 0.9f}) {
+            long before = percentileCost(baseline, type, percentile);
+            long after = percentileCost(current, type, percentile);
+            boolean worse = before > 0 && after > before * (1 + threshold);
+            regressed |= worse;
+            System.out.println(name + " p" + (int) (percentile * 100) + ": baseline=" + before / 1000 + "us current="
+                    + after / 1000 + "us" + (worse ? " REGRESSED" : ""));
+        }
+        return regressed;
+    }
+
+    private static long percentileCost(List<LayoutPassLog.Pass> passes, byte type, float percentile) {
+        long[] costs = new long[passes.size()];
+        int size = 0;
+        for (LayoutPassLog.Pass pass : passes) {
+            if (pass.type == type) {
+                costs[size++] = pass.costNanos;
+            }
+        }
+        if (size == 0) {
+            return 0;
+        }
+        Arrays.sort(costs, 0, size);
+        return costs[Math.max(0, Math.min(size - 1, (int) Math.ceil(percentile * size) - 1))];
+    }
+
+    /**
+     * 与AbstractLayoutManager#getMeasuredHeight一致,取所有可见视图的最大测量高度,没有可见视图时取第一个视图
+     */
+    private static int measuredHeightOf(LayoutPassLog.Manager manager) {
+        int height = -1;
+        for (LayoutPassLog.ViewRecord view : manager.views) {
+            if (view.visibility == VISIBLE) {
+                height = Math.max(height, view.measuredHeight);
+            }
+        }
+        if (height < 0) {
+            return manager.views.isEmpty() ? 0 : manager.views.get(0).measuredHeight;
+        }
+        return height;
+    }
+
+    private static int makeExactly(int size) {
+        return (size & ~MODE_MASK) | EXACTLY;
+    }
+
+    private static void set(int[] out, int left, int top, int right, int bottom) {
+        out[0] = left;
+        out[1] = top;
+        out[2] = right;
+        out[3] = bottom;
+    }
+}
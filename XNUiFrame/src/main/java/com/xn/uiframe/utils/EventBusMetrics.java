@@ -0,0 +1,163 @@
+package com.xn.uiframe.utils;
+
+import android.util.SparseArray;
+
+/**
+ * <p>
+ * EventBus消息的统计类，由{@link EventBusProxy}在消息投递时调用:
+ * 1.记录延迟发送的Action从入队(Handler队列)到真正投递之间的延迟分布(ms),直接发送的Action没有排队,不计入;
+ * 2.记录每个action code的投递次数;
+ * 3.记录订阅者执行耗时(主线程中同步执行的订阅方法耗时)的分布,订阅方法通常不到1ms,按System.nanoTime计时,以µs为单位;
+ * 统计结果可以通过{@link #dump()}随时导出,也可以通过{@link MetricsSink}接入到自已的统计系统中;
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class EventBusMetrics {
+
+    /**
+     * 延迟直方图的桶上限(ms),最后一个桶统计超过1024ms的所有数据
+     */
+    private static final long[] LATENCY_BUCKET_BOUNDS = {0, 1, 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024};
+
+    /**
+     * 耗时直方图的桶上限(µs),最后一个桶统计超过32768µs的所有数据
+     */
+    private static final long[] COST_BUCKET_BOUNDS = {16, 32, 64, 128, 256, 512, 1024, 2048, 4096, 8192, 16384, 32768};
+
+    /**
+     * 直接发送,没有经过Handler队列的投递传入的延迟
+     */
+    public static final long NO_LATENCY = -1;
+
+    private final long[] mLatencyHistogram = new long[LATENCY_BUCKET_BOUNDS.length + 1];
+    private final long[] mCostHistogram = new long[COST_BUCKET_BOUNDS.length + 1];
+
+    /**
+     * 每个action code对应的统计数据: [投递次数, 排队投递次数, 累计延迟(ms), 累计耗时(µs), 最大耗时(µs)]
+     */
+    private final SparseArray<long[]> mActionStats = new SparseArray<>();
+
+    private MetricsSink mMetricsSink;
+
+    /**
+     * 统计数据输出接口,可以把每一次的投递数据上报到应用自已的统计系统;
+     */
+    public interface MetricsSink {
+        /**
+         * 一个Action投递完成
+         *
+         * @param action     Action的类型
+         * @param latencyMs  从入队到投递之间的延迟,不包括调用方指定的延迟时间;直接发送时为{@link #NO_LATENCY}
+         * @param costMicros 订阅者执行耗时 µs
+         */
+        void onActionDelivered(int action, long latencyMs, long costMicros);
+    }
+
+    public void setMetricsSink(MetricsSink sink) {
+        this.mMetricsSink = sink;
+    }
+
+    /**
+     * 记录一次投递
+     *
+     * @param action     Action的类型
+     * @param latencyMs  入队到投递的延迟,直接发送时为{@link #NO_LATENCY},不计入延迟分布
+     * @param costMicros 订阅者执行耗时 µs
+     */
+    public void record(int action, long latencyMs, long costMicros) {
+        MetricsSink sink;
+        synchronized (this) {
+            long[] stats = mActionStats.get(action);
+            if (stats == null) {
+                stats = new long[5];
+                mActionStats.put(action, stats);
+            }
+            stats[0]++;
+            if (latencyMs != NO_LATENCY) {
+                mLatencyHistogram[bucketOf(LATENCY_BUCKET_BOUNDS, latencyMs)]++;
+                stats[1]++;
+                stats[2] += latencyMs;
+            }
+            mCostHistogram[bucketOf(COST_BUCKET_BOUNDS, costMicros)]++;
+            stats[3] += costMicros;
+            if (costMicros > stats[4]) {
+                stats[4] = costMicros;
+            }
+            sink = mMetricsSink;
+        }
+        if (sink != null) {
+            sink.onActionDelivered(action, latencyMs, costMicros);
+        }
+    }
+
+    /**
+     * 获得某一个action code的投递次数
+     *
+     * @param action Action的类型
+     * @return 投递次数
+     */
+    public synchronized long getDeliveredCount(int action) {
+        long[] stats = mActionStats.get(action);
+        return stats == null ? 0 : stats[0];
+    }
+
+    /**
+     * 清空所有统计数据
+     */
+    public synchronized void reset() {
+        for (int i = 0; i < mLatencyHistogram.length; i++) {
+            mLatencyHistogram[i] = 0;
+            mCostHistogram[i] = 0;
+        }
+        mActionStats.clear();
+    }
+
+    /**
+     * 导出当前的统计数据,用于日志输出或调试;
+     *
+     * @return 统计数据文本
+     */
+    public synchronized String dump() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("EventBusMetrics\n");
+        appendHistogram(builder, "latency", mLatencyHistogram, LATENCY_BUCKET_BOUNDS, "ms");
+        appendHistogram(builder, "cost", mCostHistogram, COST_BUCKET_BOUNDS, "us");
+        for (int i = 0; i < mActionStats.size(); i++) {
+            long[] stats = mActionStats.valueAt(i);
+            builder.append("  action=").append(mActionStats.keyAt(i))
+                    .append(" count=").append(stats[0]);
+            if (stats[1] > 0) {
+                builder.append(" avgLatency=").append(stats[2] / stats[1]).append("ms");
+            }
+            builder.append(" avgCost=").append(stats[3] / stats[0]).append("us")
+                    .append(" maxCost=").append(stats[4]).append("us\n");
+        }
+        return builder.toString();
+    }
+
+    private static void appendHistogram(StringBuilder builder, String name, long[] histogram, long[] bounds, String unit) {
+        builder.append("  ").append(name).append(':');
+        for (int i = 0; i < histogram.length; i++) {
+            if (histogram[i] == 0) {
+                continue;
+            }
+            if (i < bounds.length) {
+                builder.append(" <=").append(bounds[i]).append(unit).append(':');
+            } else {
+                builder.append(" >").append(bounds[bounds.length - 1]).append(unit).append(':');
+            }
+            builder.append(histogram[i]);
+        }
+        builder.append('\n');
+    }
+
+    private static int bucketOf(long[] bounds, long value) {
+        for (int i = 0; i < bounds.length; i++) {
+            if (value <= bounds[i]) {
+                return i;
+            }
+        }
+        return bounds.length;
+    }
+}
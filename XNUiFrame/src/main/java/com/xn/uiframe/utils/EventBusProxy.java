@@ -2,6 +2,7 @@ package com.xn.uiframe.utils;
 
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 
 import org.greenrobot.eventbus.EventBus;
 
@@ -16,6 +17,62 @@ public class EventBusProxy {
 
     private static Handler sHandler = new Handler(Looper.getMainLooper());
 
+    /**
+     * 消息投递统计,为空时不进行统计
+     */
+    private static volatile EventBusMetrics sMetrics;
+
+    /**
+     * 粘性消息缓存,按action code保存最后一次发送的粘性消息
+     */
+    private static StickyActionCache sStickyCache = new StickyActionCache();
+
+    /**
+     * 开启或关闭消息投递统计
+     *
+     * @param enable true:开启  false:关闭
+     */
+    public static void enableMetrics(boolean enable) {
+        if (enable && sMetrics == null) {
+            sMetrics = new EventBusMetrics();
+        } else if (!enable) {
+            sMetrics = null;
+        }
+    }
+
+    /**
+     * 设置统计数据的输出接口,会自动开启消息投递统计;
+     *
+     * @param sink
+     */
+    public static void setMetricsSink(EventBusMetrics.MetricsSink sink) {
+        EventBusMetrics metrics = sMetrics;
+        if (metrics == null) {
+            metrics = new EventBusMetrics();
+            sMetrics = metrics;
+        }
+        metrics.setMetricsSink(sink);
+    }
+
+    /**
+     * 获得当前的统计对象
+     *
+     * @return 未开启统计时返回null
+     */
+    public static EventBusMetrics getMetrics() {
+        return sMetrics;
+    }
+
+    /**
+     * 导出当前的统计数据
+     *
+     * @return 统计数据文本, 未开启统计时返回空字符串
+     */
+    public static String dumpMetrics() {
+        EventBusMetrics metrics = sMetrics;
+        return metrics == null ? "" : metrics.dump();
+    }
+
     /**
      * 主线程中简单执行一个任务
      * @param task
@@ -38,7 +95,28 @@ public class EventBusProxy {
      * @param action
      */
     public static void dispatcher(Action action) {
+        dispatcher(action, 0, 0);
+    }
+
+    /**
+     * 发送消息并记录统计数据,入队时间由投递的Runnable携带,同一个Action重复延迟发送时互不影响;
+     *
+     * @param action
+     * @param enqueueTime 入队时间,为0表示直接发送,不计入延迟统计
+     * @param delayMillis 调用方指定的延迟时间
+     */
+    private static void dispatcher(Action action, long enqueueTime, long delayMillis) {
+        EventBusMetrics metrics = sMetrics;
+        if (metrics == null || action == null) {
+            EventBus.getDefault().post(action);
+            return;
+        }
+        long latency = enqueueTime == 0 ? EventBusMetrics.NO_LATENCY
+                : Math.max(0, SystemClock.uptimeMillis() - enqueueTime - delayMillis);
+        //订阅方法通常不到1ms,用纳秒计时
+        long start = System.nanoTime();
         EventBus.getDefault().post(action);
+        metrics.record(action.action, latency, (System.nanoTime() - start) / 1000);
     }
 
     /**
@@ -47,15 +125,82 @@ public class EventBusProxy {
      * @param action
      * @param secondsDelay
      */
-    public static void dispatherDelay(final Action action, long secondsDelay) {
+    public static void dispatherDelay(final Action action, final long secondsDelay) {
+        final long enqueueTime = sMetrics != null ? SystemClock.uptimeMillis() : 0;
         sHandler.postDelayed(new Runnable() {
             @Override
             public void run() {
-                EventBusProxy.dispatcher(action);
+                EventBusProxy.dispatcher(action, enqueueTime, secondsDelay);
             }
         }, secondsDelay);
     }
 
+    /**
+     * 发送一个粘性Action消息,该消息会按action code缓存下来,
+     * 之后注册的{@link StickySubscriber}订阅者在注册时可以立即收到最后一次发送的值;
+     *
+     * @param action
+     */
+    public static void dispatcherSticky(Action action) {
+        if (action == null) {
+            return;
+        }
+        sStickyCache.put(action);
+        dispatcher(action);
+    }
+
+    /**
+     * 获得某个action code最后一次发送的粘性消息
+     *
+     * @param actionCode Action的类型
+     * @return 不存在或已过期返回null
+     */
+    public static Action getStickyAction(int actionCode) {
+        return sStickyCache.get(actionCode);
+    }
+
+    /**
+     * 移除某个action code的粘性消息
+     *
+     * @param actionCode Action的类型
+     * @return 被移除的消息
+     */
+    public static Action removeStickyAction(int actionCode) {
+        return sStickyCache.remove(actionCode);
+    }
+
+    /**
+     * 重新设置粘性消息缓存的容量和存活时间,已缓存的消息会被清空;
+     *
+     * @param maxSize 最多缓存的消息条数
+     * @param ttl     消息存活时间 ms, 小于等于0表示不过期
+     */
+    public static void configStickyCache(int maxSize, long ttl) {
+        sStickyCache = new StickyActionCache(maxSize, ttl);
+    }
+
+    /**
+     * 获得粘性消息缓存,可以用来查看淘汰次数等统计数据;
+     *
+     * @return
+     */
+    public static StickyActionCache getStickyCache() {
+        return sStickyCache;
+    }
+
+    /**
+     * 需要接收粘性消息的订阅者实现该接口,在{@link EventBusProxy#register(Object)}时
+     * 只把订阅者声明的action code中未过期的粘性消息投递给该订阅者;
+     */
+    public interface StickySubscriber {
+        /**
+         * @return 需要在注册时收到粘性消息的action code,按返回的顺序投递
+         */
+        int[] getStickyActionCodes();
+
+        void onStickyAction(Action action);
+    }
+
     /**
      * 定义一个通用的消息基类
      *
@@ -97,6 +242,19 @@ public class EventBusProxy {
      */
     public static void register(Object subscriber){
         EventBus.getDefault().register(subscriber);
+        if (subscriber instanceof StickySubscriber) {
+            StickySubscriber stickySubscriber = (StickySubscriber) subscriber;
+            int[] actionCodes = stickySubscriber.getStickyActionCodes();
+            if (actionCodes == null) {
+                return;
+            }
+            for (int actionCode : actionCodes) {
+                Action action = sStickyCache.get(actionCode);
+                if (action != null) {
+                    stickySubscriber.onStickyAction(action);
+                }
+            }
+        }
     }
     /**
      * 反注册订阅EventBus消息
@@ -0,0 +1,104 @@
+package com.xn.uiframe.utils;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.xn.uiframe.R;
+import com.xn.uiframe.builder.UIFrameViewBuilders;
+
+/**
+ * <p>
+ * 布局加载耗时对比: 分别用LayoutInflater和{@link UIFrameViewBuilders}构造框架内置的几个布局,
+ * 统计平均耗时,用于验证代码构造在冷启动时带来的收益; 可以在Application或调试界面中调用:
+ * <code>
+ *     Log.d(TAG, InflateBenchmark.run(context, 20));
+ * </code>
+ * 第一轮调用包含类加载及资源缓存的耗时,更接近冷启动的情况,因此单独输出;
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class InflateBenchmark {
+
+    private static final String[] NAMES = {
+            "ui_frame_container_layout",
+            "ui_frame_common_header_layout",
+            "ui_frame_center_listview_layout",
+            "ui_frame_refresh_head"
+    };
+
+    private InflateBenchmark() {
+    }
+
+    /**
+     * 运行对比测试,需要在主线程调用
+     *
+     * @param context    上下文
+     * @param iterations 每个布局重复构造的次数
+     * @return 统计结果文本
+     */
+    public static String run(Context context, int iterations) {
+        FrameLayout parent = new FrameLayout(context);
+        LayoutInflater inflater = LayoutInflater.from(context);
+        StringBuilder builder = new StringBuilder("InflateBenchmark iterations=").append(iterations).append('\n');
+        for (int i = 0; i < NAMES.length; i++) {
+            long inflateFirst = timeInflate(inflater, parent, i);
+            long buildFirst = timeBuild(context, i);
+            long inflateTotal = 0;
+            long buildTotal = 0;
+            for (int n = 0; n < iterations; n++) {
+                inflateTotal += timeInflate(inflater, parent, i);
+                buildTotal += timeBuild(context, i);
+            }
+            builder.append("  ").append(NAMES[i])
+                    .append(" first: inflate=").append(inflateFirst / 1000).append("us build=").append(buildFirst / 1000).append("us")
+                    .append(" avg: inflate=").append(inflateTotal / Math.max(1, iterations) / 1000).append("us")
+                    .append(" build=").append(buildTotal / Math.max(1, iterations) / 1000).append("us\n");
+        }
+        return builder.toString();
+    }
+
+    private static long timeInflate(LayoutInflater inflater, FrameLayout parent, int index) {
+        long start = System.nanoTime();
+        View view;
+        switch (index) {
+            case 0:
+                view = inflater.inflate(R.layout.ui_frame_container_layout, null, false);
+                break;
+            case 1:
+                view = inflater.inflate(R.layout.ui_frame_common_header_layout, parent, false);
+                break;
+            case 2:
+                view = inflater.inflate(R.layout.ui_frame_center_listview_layout, parent, false);
+                break;
+            default:
+                view = inflater.inflate(R.layout.ui_frame_refresh_head, parent, false);
+                break;
+        }
+        long cost = System.nanoTime() - start;
+        return view == null ? 0 : cost;
+    }
+
+    private static long timeBuild(Context context, int index) {
+        long start = System.nanoTime();
+        View view;
+        switch (index) {
+            case 0:
+                view = UIFrameViewBuilders.buildContainer(context);
+                break;
+            case 1:
+                view = UIFrameViewBuilders.buildCommonHeader(context);
+                break;
+            case 2:
+                view = UIFrameViewBuilders.buildCenterListView(context);
+                break;
+            default:
+                view = UIFrameViewBuilders.buildRefreshHead(context);
+                break;
+        }
+        long cost = System.nanoTime() - start;
+        return view == null ? 0 : cost;
+    }
+}
@@ -0,0 +1,211 @@
+package com.xn.uiframe.utils;
+
+import android.support.v4.os.TraceCompat;
+
+import com.xn.uiframe.ElementView;
+import com.xn.uiframe.layout.AbstractLayoutManager;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * 层级耗时统计: 统计PowerfulContainerLayout中每个层级(按{@link ElementView}区分)的measure,layout,draw耗时,
+ * 同时输出android.os.Trace区间(systrace中显示为"UIFrame:CenterView:measure"),
+ * 每个层级每个阶段保留最近{@link #SAMPLE_SIZE}次的耗时,每隔固定的容器重绘次数通过{@link Listener}汇报一次,用于计算分位数;
+ * <br>
+ * 注意统计的口径:
+ * 1.计数的单位是容器的重绘(dispatchDraw),不是屏幕帧,容器没有重绘的帧不计入,分位数描述的是每次重绘的耗时;
+ * 2.开启硬件加速时draw阶段只是在主线程录制DisplayList的耗时,不包括RenderThread及GPU的执行时间;
+ * 完整的帧耗时请配合systrace或gfxinfo查看;
+ * <br>
+ * 默认关闭,开启后新创建的界面自动统计:
+ * <code>
+ *     LayerFrameTimer.enable(new LayerFrameTimer.Listener() {
+ *         public void onLayerTimingReport(String screen, LayerFrameTimer timer) {
+ *             long p90 = timer.getPercentile(ElementView.CenterView, LayerFrameTimer.PHASE_DRAW, 0.9f);
+ *         }
+ *     }, 120);
+ * </code>
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class LayerFrameTimer {
+
+    public static final int PHASE_MEASURE = 0;
+    public static final int PHASE_LAYOUT = 1;
+    public static final int PHASE_DRAW = 2;
+
+    /**
+     * 每个层级每个阶段保留的样本数
+     */
+    public static final int SAMPLE_SIZE = 64;
+
+    private static final String[] PHASE_NAMES = {"measure", "layout", "draw"};
+    private static final ElementView[] ELEMENTS = ElementView.values();
+
+    private static Listener sListener;
+    private static int sReportInterval;
+
+    private final String mScreenName;
+    private final int mReportInterval;
+    private final Listener mListener;
+
+    /**
+     * Trace区间名称,提前生成避免在绘制过程中拼接字符串
+     */
+    private final String[][] mSectionNames = new String[ELEMENTS.length][PHASE_NAMES.length];
+    /**
+     * 样本环形缓冲区 纳秒
+     */
+    private final long[][][] mSamples = new long[ELEMENTS.length][PHASE_NAMES.length][SAMPLE_SIZE];
+    private final int[][] mSampleCount = new int[ELEMENTS.length][PHASE_NAMES.length];
+    private final long[] mScratch = new long[SAMPLE_SIZE];
+    private long mContainerDrawCount;
+
+    /**
+     * 统计结果汇报接口
+     */
+    public interface Listener {
+        /**
+         * 每隔固定的容器重绘次数回调一次,可以通过{@link LayerFrameTimer#getPercentile(ElementView, int, float)}获得各层级的分位数
+         *
+         * @param screen 界面名称
+         * @param timer  统计对象
+         */
+        void onLayerTimingReport(String screen, LayerFrameTimer timer);
+    }
+
+    /**
+     * 开启统计,之后创建的界面会自动统计各层级的耗时
+     *
+     * @param listener       统计结果汇报接口
+     * @param reportInterval 每隔多少次容器重绘汇报一次
+     */
+    public static void enable(Listener listener, int reportInterval) {
+        sListener = listener;
+        sReportInterval = reportInterval;
+    }
+
+    public static void disable() {
+        sListener = null;
+    }
+
+    public static boolean isEnabled() {
+        return sListener != null;
+    }
+
+    /**
+     * 按全局设置为某个界面创建统计对象
+     *
+     * @param screenName 界面名称
+     * @return 未开启统计时返回null
+     */
+    public static LayerFrameTimer create(String screenName) {
+        Listener listener = sListener;
+        return listener == null ? null : new LayerFrameTimer(screenName, listener, sReportInterval);
+    }
+
+    public LayerFrameTimer(String screenName, Listener listener, int reportInterval) {
+        this.mScreenName = screenName;
+        this.mListener = listener;
+        this.mReportInterval = reportInterval <= 0 ? 120 : reportInterval;
+        for (int i = 0; i < ELEMENTS.length; i++) {
+            for (int j = 0; j < PHASE_NAMES.length; j++) {
+                mSectionNames[i][j] = "UIFrame:" + ELEMENTS[i].name() + ":" + PHASE_NAMES[j];
+            }
+        }
+    }
+
+    /**
+     * 开始统计某个层级的一个阶段
+     *
+     * @param element 层级
+     * @param phase   {@link #PHASE_MEASURE},{@link #PHASE_LAYOUT},{@link #PHASE_DRAW}
+     * @return 开始时间,传给{@link #end(ElementView, int, long)}
+     */
+    public long begin(ElementView element, int phase) {
+        TraceCompat.beginSection(mSectionNames[element.ordinal()][phase]);
+        return System.nanoTime();
+    }
+
+    /**
+     * 结束统计某个层级的一个阶段
+     *
+     * @param element   层级
+     * @param phase     阶段
+     * @param startNano {@link #begin(ElementView, int)}的返回值
+     */
+    public void end(ElementView element, int phase, long startNano) {
+        long cost = System.nanoTime() - startNano;
+        TraceCompat.endSection();
+        int index = element.ordinal();
+        int count = mSampleCount[index][phase]++;
+        mSamples[index][phase][count % SAMPLE_SIZE] = cost;
+    }
+
+    /**
+     * 容器一次重绘(dispatchDraw)结束,按设置的重绘次数间隔汇报统计结果
+     */
+    public void onContainerDrawn() {
+        if (++mContainerDrawCount % mReportInterval == 0 && mListener != null) {
+            mListener.onLayerTimingReport(mScreenName, this);
+        }
+    }
+
+    /**
+     * 获得某个层级某个阶段最近样本的分位数
+     *
+     * @param element    层级
+     * @param phase      阶段,{@link #PHASE_DRAW}在硬件加速时只包括录制DisplayList的耗时
+     * @param percentile 分位 0~1, 例如0.9表示P90
+     * @return 耗时 纳秒, 没有样本时返回0
+     */
+    public long getPercentile(ElementView element, int phase, float percentile) {
+        int index = element.ordinal();
+        int size = Math.min(mSampleCount[index][phase], SAMPLE_SIZE);
+        if (size == 0) {
+            return 0;
+        }
+        System.arraycopy(mSamples[index][phase], 0, mScratch, 0, size);
+        Arrays.sort(mScratch, 0, size);
+        int position = (int) Math.ceil(percentile * size) - 1;
+        return mScratch[Math.max(0, Math.min(size - 1, position))];
+    }
+
+    /**
+     * @return 容器重绘的次数,不是屏幕帧数
+     */
+    public long getContainerDrawCount() {
+        return mContainerDrawCount;
+    }
+
+    public String getScreenName() {
+        return mScreenName;
+    }
+
+    /**
+     * 层级值转换为对应的界面元素
+     *
+     * @param layer {@link AbstractLayoutManager.Layer}
+     * @return 对应的界面元素
+     */
+    public static ElementView elementOf(int layer) {
+        switch (layer) {
+            case AbstractLayoutManager.Layer.LAYER_PART_OF_BASIC_HEADER:
+                return ElementView.HeaderView;
+            case AbstractLayoutManager.Layer.LAYER_PART_OF_BASIC_TOP:
+                return ElementView.TopView;
+            case AbstractLayoutManager.Layer.LAYER_PART_OF_BASIC_BOTTOM:
+                return ElementView.BottomView;
+            case AbstractLayoutManager.Layer.LAYER_PART_OF_BASIC_CENTER:
+                return ElementView.CenterView;
+            case AbstractLayoutManager.Layer.LAYER_PART_OF_BASIC_CENTER_MASK:
+                return ElementView.CenterMaskView;
+            case AbstractLayoutManager.Layer.LAYER_FULL_SCREEN_EXTRA:
+                return ElementView.FullScreenView;
+            default:
+                return ElementView.DialogView;
+        }
+    }
+}
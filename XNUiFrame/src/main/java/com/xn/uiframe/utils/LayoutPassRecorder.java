@@ -0,0 +1,178 @@
+package com.xn.uiframe.utils;
+
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.xn.uiframe.interfaces.ILayoutManager;
+import com.xn.uiframe.layout.AbstractLayoutManager;
+import com.xn.uiframe.layout.CenterLayoutManager;
+import com.xn.uiframe.replay.LayoutPassLog;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * 布局过程记录器: 把PowerfulContainerLayout的每一次measure,layout过程写入二进制文件,
+ * 文件格式参见{@link LayoutPassLog},在主机端用{@link com.xn.uiframe.replay.LayoutPassReplayer}重放,
+ * 用来发现特定屏幕配置下的层级计算错误及耗时退化; 仅用于调试,记录时会在主线程写文件;
+ * <p>使用方法</p>
+ * <code>
+ *     LayoutPassRecorder recorder = LayoutPassRecorder.open(new File(getExternalFilesDir(null), "layout_pass.bin"));
+ *     containerLayout.setLayoutPassRecorder(recorder);
+ *     ...
+ *     recorder.close();
+ * </code>
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class LayoutPassRecorder {
+
+    private static final String TAG = "LayoutPassRecorder";
+
+    private DataOutputStream mOutput;
+
+    /**
+     * 当前过程中传给子视图的MeasureSpec
+     */
+    private final Map<View, int[]> mChildSpecs = new IdentityHashMap<>();
+
+    /**
+     * 创建记录文件
+     *
+     * @param file 记录文件,已存在时覆盖
+     * @return 记录器
+     * @throws IOException 文件创建失败
+     */
+    public static LayoutPassRecorder open(File file) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        LayoutPassLog.writeHeader(output);
+        return new LayoutPassRecorder(output);
+    }
+
+    private LayoutPassRecorder(DataOutputStream output) {
+        this.mOutput = output;
+    }
+
+    /**
+     * 记录布局管理器传给子视图的MeasureSpec,由PowerfulContainerLayout#measureChild调用
+     */
+    public void onChildMeasured(View child, int widthMeasureSpec, int heightMeasureSpec) {
+        mChildSpecs.put(child, new int[]{widthMeasureSpec, heightMeasureSpec, 0, 0});
+    }
+
+    /**
+     * 记录一次measure过程
+     */
+    public void recordMeasure(int widthMeasureSpec, int heightMeasureSpec,
+                              List<ILayoutManager<ILayoutManager>> managers, long costNanos) {
+        LayoutPassLog.Pass pass = newPass(LayoutPassLog.TYPE_MEASURE, costNanos, managers);
+        pass.args[0] = widthMeasureSpec;
+        pass.args[1] = heightMeasureSpec;
+        write(pass);
+    }
+
+    /**
+     * 记录一次layout过程,子视图的位置在layout之后读取;
+     * 没有被布局的视图保留上一次的位置,重放时只比较按规则应该被布局的视图;
+     */
+    public void recordLayout(int left, int top, int right, int bottom,
+                             List<ILayoutManager<ILayoutManager>> managers, long costNanos) {
+        LayoutPassLog.Pass pass = newPass(LayoutPassLog.TYPE_LAYOUT, costNanos, managers);
+        pass.args[0] = left;
+        pass.args[1] = top;
+        pass.args[2] = right;
+        pass.args[3] = bottom;
+        write(pass);
+    }
+
+    /**
+     * 关闭记录文件
+     */
+    public synchronized void close() {
+        if (mOutput == null) {
+            return;
+        }
+        try {
+            mOutput.close();
+        } catch (IOException e) {
+            Log.w(TAG, "关闭记录文件失败", e);
+        }
+        mOutput = null;
+    }
+
+    private LayoutPassLog.Pass newPass(byte type, long costNanos, List<ILayoutManager<ILayoutManager>> managers) {
+        LayoutPassLog.Pass pass = new LayoutPassLog.Pass();
+        pass.type = type;
+        pass.costNanos = costNanos;
+        for (ILayoutManager<ILayoutManager> layoutManager : managers) {
+            LayoutPassLog.Manager manager = new LayoutPassLog.Manager();
+            manager.layer = layoutManager.getLayer();
+            manager.visibility = layoutManager.getVisibility();
+            if (layoutManager instanceof CenterLayoutManager) {
+                manager.scrollLinkedCollapse = ((CenterLayoutManager) layoutManager).isScrollLinkedCollapse();
+            }
+            ViewGroup.MarginLayoutParams params = layoutManager.getMarginLayoutParams();
+            if (params != null) {
+                manager.margins[0] = params.leftMargin;
+                manager.margins[1] = params.topMargin;
+                manager.margins[2] = params.rightMargin;
+                manager.margins[3] = params.bottomMargin;
+            }
+            if (layoutManager instanceof AbstractLayoutManager) {
+                manager.phaseX = ((AbstractLayoutManager) layoutManager).getPhaseX();
+                manager.phaseY = ((AbstractLayoutManager) layoutManager).getPhaseY();
+            } else {
+                manager.phaseX = 1f;
+                manager.phaseY = 1f;
+            }
+            for (View child : layoutManager.getContentViews()) {
+                LayoutPassLog.ViewRecord view = new LayoutPassLog.ViewRecord();
+                view.visibility = child.getVisibility();
+                if (layoutManager instanceof AbstractLayoutManager) {
+                    view.phaseX = ((AbstractLayoutManager) layoutManager).getPhaseX(child);
+                    view.phaseY = ((AbstractLayoutManager) layoutManager).getPhaseY(child);
+                }
+                view.measuredWidth = child.getMeasuredWidth();
+                view.measuredHeight = child.getMeasuredHeight();
+                if (type == LayoutPassLog.TYPE_MEASURE) {
+                    int[] specs = mChildSpecs.get(child);
+                    if (specs != null) {
+                        System.arraycopy(specs, 0, view.outputs, 0, specs.length);
+                        view.touched = true;
+                    }
+                } else {
+                    view.outputs[0] = child.getLeft();
+                    view.outputs[1] = child.getTop();
+                    view.outputs[2] = child.getRight();
+                    view.outputs[3] = child.getBottom();
+                    view.touched = true;
+                }
+                manager.views.add(view);
+            }
+            pass.managers.add(manager);
+        }
+        mChildSpecs.clear();
+        return pass;
+    }
+
+    private synchronized void write(LayoutPassLog.Pass pass) {
+        if (mOutput == null) {
+            return;
+        }
+        try {
+            LayoutPassLog.writePass(mOutput, pass);
+        } catch (IOException e) {
+            Log.w(TAG, "写入记录文件失败,停止记录", e);
+            close();
+        }
+    }
+}
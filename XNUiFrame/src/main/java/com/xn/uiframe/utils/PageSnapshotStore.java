@@ -0,0 +1,186 @@
+package com.xn.uiframe.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.xn.uiframe.refreshlayout.PageSnapshotAdapter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>
+ * 列表页面快照存储: 把最后一次刷新成功的页面数据保存在缓存目录中,下次进入界面时先展示快照,再在后台刷新;
+ * 读写都在同一个后台线程中按顺序执行,结果回调到主线程;
+ * <pre>
+ * 文件格式: int MAGIC, short VERSION, long 保存时间(System.currentTimeMillis), 页面数据({@link PageSnapshotAdapter#writePage})
+ * </pre>
+ * 写入时先写临时文件再重命名,进程在写入过程中被杀死不会留下不完整的快照;
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class PageSnapshotStore {
+
+    private static final String TAG = "PageSnapshotStore";
+    private static final String DIRECTORY = "uiframe_snapshots";
+
+    public static final int MAGIC = 0x55465053;
+    public static final short VERSION = 1;
+
+    private static ExecutorService sExecutor;
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    private final File mFile;
+
+    /**
+     * 读取完成的回调,在主线程调用
+     */
+    public interface Callback<T> {
+        /**
+         * @param page      页面数据,快照不存在,已过期或读取失败时为null
+         * @param ageMillis 快照保存至今的时间 ms
+         */
+        void onLoaded(T page, long ageMillis);
+    }
+
+    /**
+     * @param context 上下文
+     * @param key     快照名称,同一应用内唯一,只能包含文件名允许的字符
+     */
+    public PageSnapshotStore(Context context, String key) {
+        File directory = new File(context.getApplicationContext().getCacheDir(), DIRECTORY);
+        this.mFile = new File(directory, key + ".snap");
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (sExecutor == null) {
+            sExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, TAG);
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+        }
+        return sExecutor;
+    }
+
+    /**
+     * 在后台线程读取快照
+     *
+     * @param adapter      页面数据读取
+     * @param maxAgeMillis 快照的最长有效时间 ms, 小于等于0表示不过期
+     * @param callback     主线程回调
+     */
+    public <T> void load(final PageSnapshotAdapter<T> adapter, final long maxAgeMillis, final Callback<T> callback) {
+        executor().execute(new Runnable() {
+            @Override
+            public void run() {
+                T page = null;
+                long age = 0;
+                if (mFile.exists()) {
+                    DataInputStream in = null;
+                    try {
+                        in = new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)));
+                        if (in.readInt() == MAGIC && in.readShort() == VERSION) {
+                            age = Math.max(0, System.currentTimeMillis() - in.readLong());
+                            if (maxAgeMillis <= 0 || age <= maxAgeMillis) {
+                                page = adapter.readPage(in);
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        Log.w(TAG, "读取快照失败: " + mFile.getName(), e);
+                        page = null;
+                    } finally {
+                        closeQuietly(in);
+                    }
+                }
+                final T result = page;
+                final long ageMillis = age;
+                sMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onLoaded(result, ageMillis);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 在后台线程保存快照
+     *
+     * @param page    页面数据,调用之后不能再修改
+     * @param adapter 页面数据写入
+     */
+    public <T> void save(final T page, final PageSnapshotAdapter<T> adapter) {
+        executor().execute(new Runnable() {
+            @Override
+            public void run() {
+                File directory = mFile.getParentFile();
+                if (!directory.exists() && !directory.mkdirs()) {
+                    Log.w(TAG, "无法创建快照目录: " + directory);
+                    return;
+                }
+                File temp = new File(directory, mFile.getName() + ".tmp");
+                DataOutputStream out = null;
+                try {
+                    out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+                    out.writeInt(MAGIC);
+                    out.writeShort(VERSION);
+                    out.writeLong(System.currentTimeMillis());
+                    adapter.writePage(out, page);
+                    out.close();
+                    out = null;
+                    if (!temp.renameTo(mFile)) {
+                        Log.w(TAG, "保存快照失败: " + mFile.getName());
+                    }
+                } catch (IOException | RuntimeException e) {
+                    Log.w(TAG, "保存快照失败: " + mFile.getName(), e);
+                } finally {
+                    closeQuietly(out);
+                    if (temp.exists()) {
+                        temp.delete();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 删除快照,例如用户退出登录时
+     */
+    public void clear() {
+        executor().execute(new Runnable() {
+            @Override
+            public void run() {
+                mFile.delete();
+            }
+        });
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
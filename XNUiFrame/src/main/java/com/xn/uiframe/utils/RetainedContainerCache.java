@@ -0,0 +1,229 @@
+package com.xn.uiframe.utils;
+
+import android.app.Activity;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.xn.uiframe.interfaces.IBaseViewContainer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * 保留视图缓存: Fragment在Tab之间切换时,视图会被销毁再重新创建,每次都要重新构造BaseViewContainer及各个布局管理器;
+ * 开启保留后(参见UIFrameBasicFragment#isRetainViewHierarchy),Fragment的PowerfulContainerLayout及其布局管理器会保存在这里,
+ * 视图重新创建时直接把原来的视图重新挂载到Fragment上;
+ * <br>
+ * 缓存按最近最少使用(LRU)限制保留的个数,内存不足时(onTrimMemory)释放所有未挂载在界面上的视图;
+ * 每个视图都记录了创建它的Activity,Activity重建(包括setRetainInstance的Fragment)或者已经结束时,
+ * 对应的视图不再复用,直接丢弃,避免在已经销毁的Activity上继续显示对话框,加载资源;
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class RetainedContainerCache implements ComponentCallbacks2 {
+
+    /**
+     * 默认最多保留的视图个数
+     */
+    public static final int DEFAULT_MAX_RETAINED = 4;
+
+    private static RetainedContainerCache sInstance;
+
+    private final LinkedHashMap<Object, Entry> mEntries;
+
+    private int mMaxRetained = DEFAULT_MAX_RETAINED;
+
+    private long mHitCount;
+    private long mMissCount;
+    private long mEvictionCount;
+
+    public static synchronized RetainedContainerCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new RetainedContainerCache();
+            context.getApplicationContext().registerComponentCallbacks(sInstance);
+        }
+        return sInstance;
+    }
+
+    private RetainedContainerCache() {
+        mEntries = new LinkedHashMap<Object, Entry>(8, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() > mMaxRetained) {
+                    mEvictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 设置最多保留的视图个数,超出后淘汰最久未使用的视图
+     *
+     * @param maxRetained 最多保留个数
+     */
+    public synchronized void setMaxRetained(int maxRetained) {
+        this.mMaxRetained = maxRetained <= 0 ? DEFAULT_MAX_RETAINED : maxRetained;
+        trimToSize(mMaxRetained);
+    }
+
+    /**
+     * 保存某个界面的视图容器
+     *
+     * @param owner     视图的拥有者,一般是Fragment
+     * @param activity  创建视图的Activity
+     * @param container 视图容器
+     * @param view      视图容器创建的根视图
+     */
+    public synchronized void put(Object owner, Activity activity, IBaseViewContainer container, View view) {
+        evictDestroyed();
+        mEntries.put(owner, new Entry(activity, container, view));
+    }
+
+    /**
+     * 获得某个界面保留的视图,并把视图从原来的父视图中移除,便于重新挂载;
+     * 视图不是由当前Activity创建的,则丢弃该视图并返回null;
+     *
+     * @param owner    视图的拥有者
+     * @param activity 当前的Activity
+     * @return 不存在返回null
+     */
+    public synchronized Entry obtain(Object owner, Activity activity) {
+        evictDestroyed();
+        Entry entry = mEntries.get(owner);
+        if (entry != null && entry.activity != activity) {
+            mEntries.remove(owner);
+            discard(entry);
+            entry = null;
+        }
+        if (entry == null) {
+            mMissCount++;
+            return null;
+        }
+        mHitCount++;
+        if (entry.view.getParent() instanceof ViewGroup) {
+            ((ViewGroup) entry.view.getParent()).removeView(entry.view);
+        }
+        return entry;
+    }
+
+    /**
+     * 移除某个界面保留的视图,界面销毁时调用;
+     *
+     * @param owner 视图的拥有者
+     */
+    public synchronized void remove(Object owner) {
+        mEntries.remove(owner);
+    }
+
+    /**
+     * 释放所有未挂载在界面上的视图
+     *
+     * @return 释放的个数
+     */
+    public synchronized int evictDetached() {
+        int count = 0;
+        Iterator<Entry> iterator = mEntries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().view.getParent() == null) {
+                iterator.remove();
+                count++;
+            }
+        }
+        mEvictionCount += count;
+        return count;
+    }
+
+    /**
+     * 丢弃所有Activity已经结束或销毁的视图
+     */
+    private void evictDestroyed() {
+        Iterator<Entry> iterator = mEntries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (isDestroyed(entry.activity)) {
+                iterator.remove();
+                discard(entry);
+            }
+        }
+    }
+
+    /**
+     * 丢弃一个不会再复用的视图,视图已经不在界面上时归还视图容器借用的资源(WebView等),
+     * 还在界面上的由拥有者在自己的生命周期中归还;
+     */
+    private void discard(Entry entry) {
+        mEvictionCount++;
+        if (entry.view.getParent() == null) {
+            entry.container.onDestroyView();
+        }
+    }
+
+    private static boolean isDestroyed(Activity activity) {
+        if (activity.isFinishing()) {
+            return true;
+        }
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1 && activity.isDestroyed();
+    }
+
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return mHitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return mMissCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return mEvictionCount;
+    }
+
+    private void trimToSize(int maxSize) {
+        Iterator<Entry> iterator = mEntries.values().iterator();
+        while (mEntries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            mEvictionCount++;
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            evictDetached();
+        }
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    @Override
+    public void onLowMemory() {
+        evictDetached();
+    }
+
+    public static class Entry {
+        public final Activity activity;
+        public final IBaseViewContainer container;
+        public final View view;
+
+        Entry(Activity activity, IBaseViewContainer container, View view) {
+            this.activity = activity;
+            this.container = container;
+            this.view = view;
+        }
+    }
+}
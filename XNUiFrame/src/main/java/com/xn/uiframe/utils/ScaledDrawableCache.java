@@ -0,0 +1,181 @@
+package com.xn.uiframe.utils;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.support.annotation.DrawableRes;
+import android.support.v4.content.ContextCompat;
+import android.util.LruCache;
+
+/**
+ * <p>
+ * 缩放图标缓存: 以(资源ID,缩放因子)为key缓存已经解码的{@link Drawable.ConstantState}及缩放后的尺寸,
+ * 头部图标,Tab图标在各个界面重复设置时,直接由ConstantState创建新的Drawable,不再重复解码和计算缩放;
+ * 缓存按字节大小限制容量,可以通过{@link #hitCount()},{@link #missCount()},{@link #size()}查看缓存情况;
+ * 缓存记录生成时的屏幕密度及夜间模式,这两项会改变图片资源的选择,变化后第一次获取时清空缓存,
+ * 避免继续使用旧Resources解码出来的ConstantState;屏幕旋转,分屏等其它配置变化不影响缓存;
+ * 调用方记录已经设置的图标时,可以同时记录{@link #getGeneration(Context)},缓存清空后重新设置;
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class ScaledDrawableCache {
+
+    /**
+     * 默认缓存大小 2M
+     */
+    public static final int DEFAULT_MAX_BYTES = 2 * 1024 * 1024;
+
+    private static ScaledDrawableCache sInstance;
+
+    private final LruCache<Long, Entry> mCache;
+
+    /**
+     * 缓存中的数据对应的屏幕密度及夜间模式,0表示还没有记录
+     */
+    private int mDensityDpi;
+    private int mNightMode;
+
+    /**
+     * 因配置变化清空缓存的次数
+     */
+    private int mGeneration;
+
+    public static synchronized ScaledDrawableCache getInstance() {
+        if (sInstance == null) {
+            sInstance = new ScaledDrawableCache(DEFAULT_MAX_BYTES);
+        }
+        return sInstance;
+    }
+
+    public ScaledDrawableCache(int maxBytes) {
+        mCache = new LruCache<Long, Entry>(maxBytes) {
+            @Override
+            protected int sizeOf(Long key, Entry value) {
+                return value.byteSize;
+            }
+        };
+    }
+
+    /**
+     * 获得一个已经设置好缩放尺寸的Drawable,每次调用返回一个新的Drawable实例,
+     * 但与缓存中的实例共享同一份图片数据;
+     *
+     * @param context     上下文
+     * @param resource    图片资源ID
+     * @param scaleFactor 缩放因子
+     * @return 已经调用过setBounds的Drawable
+     */
+    public Drawable get(Context context, @DrawableRes int resource, float scaleFactor) {
+        checkConfiguration(context.getResources());
+        long key = ((long) resource << 32) | (Float.floatToIntBits(scaleFactor) & 0xffffffffL);
+        Entry entry = mCache.get(key);
+        if (entry == null) {
+            Drawable drawable = ContextCompat.getDrawable(context, resource);
+            int width = (int) (drawable.getIntrinsicWidth() * scaleFactor);
+            int height = (int) (drawable.getIntrinsicHeight() * scaleFactor);
+            Drawable.ConstantState state = drawable.getConstantState();
+            if (state == null) {
+                drawable.setBounds(0, 0, width, height);
+                return drawable;
+            }
+            entry = new Entry(state, width, height, byteSizeOf(drawable));
+            mCache.put(key, entry);
+            drawable.setBounds(0, 0, width, height);
+            return drawable;
+        }
+        Drawable drawable = entry.state.newDrawable(context.getResources());
+        drawable.setBounds(0, 0, entry.width, entry.height);
+        return drawable;
+    }
+
+    public int hitCount() {
+        return mCache.hitCount();
+    }
+
+    public int missCount() {
+        return mCache.missCount();
+    }
+
+    /**
+     * @return 当前缓存占用的字节数
+     */
+    public int size() {
+        return mCache.size();
+    }
+
+    public int maxSize() {
+        return mCache.maxSize();
+    }
+
+    public void evictAll() {
+        mCache.evictAll();
+    }
+
+    /**
+     * 内存不足时按比例释放缓存
+     *
+     * @param ratio 保留的比例 0~1
+     */
+    public void trimToRatio(float ratio) {
+        mCache.trimToSize((int) (mCache.maxSize() * ratio));
+    }
+
+    /**
+     * @param context 上下文
+     * @return 缓存因配置变化被清空的次数,与调用方记录的值不同时说明之前取得的Drawable已经过期
+     */
+    public int getGeneration(Context context) {
+        checkConfiguration(context.getResources());
+        return mGeneration;
+    }
+
+    /**
+     * 屏幕密度或夜间模式与缓存数据对应的不一致时清空缓存
+     *
+     * @param resources 当前的Resources
+     */
+    private synchronized void checkConfiguration(Resources resources) {
+        Configuration configuration = resources.getConfiguration();
+        int densityDpi = Build.VERSION.SDK_INT >= 17 ? configuration.densityDpi : resources.getDisplayMetrics().densityDpi;
+        int nightMode = configuration.uiMode & Configuration.UI_MODE_NIGHT_MASK;
+        if (densityDpi == mDensityDpi && nightMode == mNightMode) {
+            return;
+        }
+        if (mDensityDpi != 0) {
+            mCache.evictAll();
+            mGeneration++;
+        }
+        mDensityDpi = densityDpi;
+        mNightMode = nightMode;
+    }
+
+    private static int byteSizeOf(Drawable drawable) {
+        if (drawable instanceof BitmapDrawable) {
+            Bitmap bitmap = ((BitmapDrawable) drawable).getBitmap();
+            if (bitmap != null) {
+                return bitmap.getRowBytes() * bitmap.getHeight();
+            }
+        }
+        int size = drawable.getIntrinsicWidth() * drawable.getIntrinsicHeight() * 4;
+        return size > 0 ? size : 1;
+    }
+
+    private static class Entry {
+        final Drawable.ConstantState state;
+        final int width;
+        final int height;
+        final int byteSize;
+
+        Entry(Drawable.ConstantState state, int width, int height, int byteSize) {
+            this.state = state;
+            this.width = width;
+            this.height = height;
+            this.byteSize = byteSize;
+        }
+    }
+}
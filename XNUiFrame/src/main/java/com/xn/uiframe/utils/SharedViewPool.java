@@ -0,0 +1,106 @@
+package com.xn.uiframe.utils;
+
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+
+/**
+ * <p>
+ * 可以在多个RecyclerView之间共享的视图池,并统计每个viewType的回收,复用命中及未命中次数;
+ * 共享需要显式开启: 宿主Activity实现{@link Owner}接口并持有一个视图池,
+ * 该Activity中使用带下拉刷新的RecyclerView中间视图的UIFrameBasicActivity/UIFrameBasicFragment会使用这个视图池,
+ * 切换Tab时直接复用行视图而不需要重新inflate; 视图池随宿主Activity一起释放;
+ * <br>
+ * 注意: 共享视图池要求宿主Activity中所有Adapter的viewType全局唯一,相同的viewType必须对应相同的行布局,
+ * 否则会拿到其它Adapter的ViewHolder;
+ * <p>使用方法</p>
+ * <code>
+ *     public class MainActivity extends FragmentActivity implements SharedViewPool.Owner {
+ *         private final SharedViewPool mViewPool = new SharedViewPool();
+ *
+ *         public SharedViewPool getSharedViewPool() {
+ *             return mViewPool;
+ *         }
+ *     }
+ * </code>
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class SharedViewPool extends RecyclerView.RecycledViewPool {
+
+    /**
+     * 每个viewType的统计数据: [回收次数, 复用命中次数, 未命中次数]
+     */
+    private final SparseArray<long[]> mStats = new SparseArray<>();
+
+    /**
+     * 持有共享视图池的宿主Activity需要实现该接口,视图池的生命周期与宿主一致;
+     */
+    public interface Owner {
+        /**
+         * @return 需要共享的视图池, 返回null表示不共享
+         */
+        SharedViewPool getSharedViewPool();
+    }
+
+    @Override
+    public RecyclerView.ViewHolder getRecycledView(int viewType) {
+        RecyclerView.ViewHolder holder = super.getRecycledView(viewType);
+        statsOf(viewType)[holder == null ? 2 : 1]++;
+        return holder;
+    }
+
+    @Override
+    public void putRecycledView(RecyclerView.ViewHolder scrap) {
+        statsOf(scrap.getItemViewType())[0]++;
+        super.putRecycledView(scrap);
+    }
+
+    /**
+     * 获得某个viewType的复用命中次数
+     *
+     * @param viewType
+     * @return
+     */
+    public long getHitCount(int viewType) {
+        long[] stats = mStats.get(viewType);
+        return stats == null ? 0 : stats[1];
+    }
+
+    /**
+     * 获得某个viewType的未命中次数,即需要重新创建行视图的次数
+     *
+     * @param viewType
+     * @return
+     */
+    public long getMissCount(int viewType) {
+        long[] stats = mStats.get(viewType);
+        return stats == null ? 0 : stats[2];
+    }
+
+    /**
+     * 导出视图池的统计数据
+     *
+     * @return
+     */
+    public String dump() {
+        StringBuilder builder = new StringBuilder("SharedViewPool\n");
+        for (int i = 0; i < mStats.size(); i++) {
+            long[] stats = mStats.valueAt(i);
+            builder.append("  viewType=").append(mStats.keyAt(i))
+                    .append(" recycled=").append(stats[0])
+                    .append(" hit=").append(stats[1])
+                    .append(" miss=").append(stats[2]).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private long[] statsOf(int viewType) {
+        long[] stats = mStats.get(viewType);
+        if (stats == null) {
+            stats = new long[3];
+            mStats.put(viewType, stats);
+        }
+        return stats;
+    }
+}
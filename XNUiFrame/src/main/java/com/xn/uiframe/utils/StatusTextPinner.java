@@ -0,0 +1,59 @@
+package com.xn.uiframe.utils;
+
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.view.Gravity;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+/**
+ * <p>
+ * 状态文字工具类: 下拉刷新头部和底部的状态文字在拖动过程中会不断切换,
+ * 如果TextView的宽度是wrap_content,每次setText都会向上请求重新布局(RefreshBaseLayout,PowerfulContainerLayout);
+ * 这里预先测量所有状态文字的宽度,把TextView的宽度固定为最大宽度,之后切换文字只会重绘,不会重新布局;
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class StatusTextPinner {
+
+    private StatusTextPinner() {
+    }
+
+    /**
+     * 按所有状态文字中最宽的一个固定TextView的宽度,只对wrap_content宽度的TextView生效;
+     * 较短的文字在固定宽度内水平居中,与原来wrap_content的显示位置保持一致;
+     *
+     * @param textView 状态TextView
+     * @param texts    所有可能显示的状态文字
+     */
+    public static void pinWidth(TextView textView, CharSequence... texts) {
+        ViewGroup.LayoutParams params = textView.getLayoutParams();
+        if (params != null && params.width != ViewGroup.LayoutParams.WRAP_CONTENT) {
+            return;
+        }
+        TextPaint paint = textView.getPaint();
+        float maxWidth = 0;
+        for (CharSequence text : texts) {
+            if (text == null) {
+                continue;
+            }
+            maxWidth = Math.max(maxWidth, paint.measureText(text, 0, text.length()));
+        }
+        int width = (int) Math.ceil(maxWidth) + textView.getCompoundPaddingLeft() + textView.getCompoundPaddingRight();
+        textView.setWidth(width);
+        textView.setGravity((textView.getGravity() & Gravity.VERTICAL_GRAVITY_MASK) | Gravity.CENTER_HORIZONTAL);
+    }
+
+    /**
+     * 只有文字内容发生变化时才调用setText
+     *
+     * @param textView 状态TextView
+     * @param text     需要显示的文字
+     */
+    public static void setText(TextView textView, CharSequence text) {
+        if (!TextUtils.equals(textView.getText(), text)) {
+            textView.setText(text);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.xn.uiframe.utils;
+
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * 粘性消息缓存:按action code保存最后一次发送的{@link EventBusProxy.Action},
+ * 使得在消息发送之后才注册的订阅者可以立即拿到最后的值，而不需要重新发起网络请求;
+ * 缓存按最近最少使用(LRU)淘汰，并且每条消息有存活时间(TTL)，过期的消息不会再被投递;
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class StickyActionCache {
+
+    /**
+     * 默认最多缓存的消息条数
+     */
+    public static final int DEFAULT_MAX_SIZE = 32;
+    /**
+     * 默认消息存活时间 ms
+     */
+    public static final long DEFAULT_TTL = 5 * 60 * 1000;
+
+    private final int mMaxSize;
+    private final long mTtl;
+
+    private final LinkedHashMap<Integer, Entry> mEntries;
+
+    /**
+     * 因容量超出被淘汰的消息数
+     */
+    private long mSizeEvictionCount;
+    /**
+     * 因过期被淘汰的消息数
+     */
+    private long mExpiredEvictionCount;
+
+    public StickyActionCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL);
+    }
+
+    /**
+     * @param maxSize 最多缓存的消息条数
+     * @param ttl     消息存活时间 ms, 小于等于0表示不过期
+     */
+    public StickyActionCache(int maxSize, long ttl) {
+        this.mMaxSize = maxSize <= 0 ? DEFAULT_MAX_SIZE : maxSize;
+        this.mTtl = ttl;
+        this.mEntries = new LinkedHashMap<Integer, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() > mMaxSize) {
+                    mSizeEvictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 保存一条粘性消息，相同action code的旧消息会被替换;
+     *
+     * @param action
+     */
+    public synchronized void put(EventBusProxy.Action action) {
+        mEntries.put(action.action, new Entry(action, SystemClock.uptimeMillis()));
+    }
+
+    /**
+     * 获得某个action code最后一次发送的消息
+     *
+     * @param actionCode Action的类型
+     * @return 不存在或已过期返回null
+     */
+    public synchronized EventBusProxy.Action get(int actionCode) {
+        Entry entry = mEntries.get(actionCode);
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, SystemClock.uptimeMillis())) {
+            mEntries.remove(actionCode);
+            mExpiredEvictionCount++;
+            return null;
+        }
+        return entry.action;
+    }
+
+    /**
+     * 移除某个action code的粘性消息
+     *
+     * @param actionCode Action的类型
+     * @return 被移除的消息
+     */
+    public synchronized EventBusProxy.Action remove(int actionCode) {
+        Entry entry = mEntries.remove(actionCode);
+        return entry == null ? null : entry.action;
+    }
+
+    /**
+     * 获得所有未过期的消息,并清理掉已过期的消息;
+     *
+     * @return 按最近使用的顺序排列的消息列表
+     */
+    public synchronized List<EventBusProxy.Action> snapshot() {
+        long now = SystemClock.uptimeMillis();
+        List<EventBusProxy.Action> actions = new ArrayList<>(mEntries.size());
+        Iterator<Entry> iterator = mEntries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (isExpired(entry, now)) {
+                iterator.remove();
+                mExpiredEvictionCount++;
+            } else {
+                actions.add(entry.action);
+            }
+        }
+        return actions;
+    }
+
+    public synchronized void clear() {
+        mEntries.clear();
+    }
+
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    public synchronized long getSizeEvictionCount() {
+        return mSizeEvictionCount;
+    }
+
+    public synchronized long getExpiredEvictionCount() {
+        return mExpiredEvictionCount;
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return mTtl > 0 && now - entry.time > mTtl;
+    }
+
+    private static class Entry {
+        final EventBusProxy.Action action;
+        final long time;
+
+        Entry(EventBusProxy.Action action, long time) {
+            this.action = action;
+            this.time = time;
+        }
+    }
+}
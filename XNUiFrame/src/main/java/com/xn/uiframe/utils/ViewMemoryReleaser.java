@@ -0,0 +1,63 @@
+package com.xn.uiframe.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+/**
+ * <p>
+ * 视图内存释放工具: 断开一个已经移出界面的视图树对背景及图片的引用,使得解码后的图片可以被回收,
+ * 并按图片的像素数据估算释放的字节数;
+ * 与资源缓存或其它视图共享的图片不会真正释放,因此返回值是可释放的上限;
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class ViewMemoryReleaser {
+
+    private ViewMemoryReleaser() {
+    }
+
+    /**
+     * 释放视图树中所有视图的背景及ImageView的图片,释放后的视图不能再显示
+     *
+     * @param root 已经从父视图中移除的视图
+     * @return 估算释放的字节数
+     */
+    public static long release(View root) {
+        long bytes = 0;
+        Drawable background = root.getBackground();
+        if (background != null) {
+            bytes += byteSizeOf(background);
+            root.setBackground(null);
+        }
+        if (root instanceof ImageView) {
+            ImageView imageView = (ImageView) root;
+            Drawable drawable = imageView.getDrawable();
+            if (drawable != null) {
+                bytes += byteSizeOf(drawable);
+                imageView.setImageDrawable(null);
+            }
+        }
+        if (root instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) root;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                bytes += release(group.getChildAt(i));
+            }
+        }
+        return bytes;
+    }
+
+    private static long byteSizeOf(Drawable drawable) {
+        if (drawable instanceof BitmapDrawable) {
+            Bitmap bitmap = ((BitmapDrawable) drawable).getBitmap();
+            if (bitmap != null && !bitmap.isRecycled()) {
+                return (long) bitmap.getRowBytes() * bitmap.getHeight();
+            }
+        }
+        return 0;
+    }
+}
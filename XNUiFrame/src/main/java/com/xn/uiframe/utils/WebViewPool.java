@@ -0,0 +1,335 @@
+package com.xn.uiframe.utils;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.content.res.Configuration;
+import android.os.Build;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.ViewGroup;
+import android.webkit.WebChromeClient;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+import android.webkit.WebViewClient;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p>
+ * WebView预创建池: 第一次创建WebView需要加载内核,在主线程上耗时明显;
+ * 调用{@link #prewarm(int)}后,池在主线程空闲时(IdleHandler)逐个创建WebView,界面打开时直接取用,
+ * 被取走后在下一次空闲时自动补充;
+ * <br>
+ * 池中的WebView使用MutableContextWrapper创建,取出时切换到界面的Context,归还时切换回Application,避免持有界面;
+ * 归还时清空页面,历史记录及回调,移除借出期间注入的JavascriptInterface,把WebSettings恢复为默认值后重新执行{@link Initializer},
+ * 保证下一个页面既调用不到上一个界面的JS桥,也不会沿用它打开的JS,文件访问等权限;
+ * 内存不足时(onTrimMemory)销毁池中空闲的WebView;
+ * <p>使用方法</p>
+ * <code>
+ *     WebViewPool.getInstance(context).prewarm(1);
+ *     Log.d(TAG, WebViewPool.getInstance(context).dump());
+ * </code>
+ * Copyright © 2015 深圳市小牛在线互联网信息咨询有限公司 股东公司：深圳市小牛互联网金融服务有限公司 版权所有 备案号：粤ICP备14079927号  ICP证粤B2-20160194
+ * </p>
+ */
+
+public class WebViewPool implements ComponentCallbacks2 {
+
+    /**
+     * 默认最多缓存的WebView个数
+     */
+    public static final int DEFAULT_MAX_SIZE = 2;
+
+    private static WebViewPool sInstance;
+
+    private final Context mApplicationContext;
+    private final List<WebView> mIdleWebViews = new ArrayList<>();
+
+    private int mMaxSize = DEFAULT_MAX_SIZE;
+    /**
+     * 预创建的目标个数,0表示不预创建
+     */
+    private int mPrewarmCount;
+    private boolean mIdleScheduled;
+    private Initializer mInitializer;
+
+    private long mHitCount;
+    private long mMissCount;
+    private long mCreatedCount;
+    private long mDestroyedCount;
+
+    /**
+     * WebView的统一初始化,在创建时及每次归还重置后调用,例如设置WebSettings
+     */
+    public interface Initializer {
+        void onInit(WebView webView);
+    }
+
+    private final MessageQueue.IdleHandler mPrewarmIdleHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            if (mIdleWebViews.size() >= Math.min(mPrewarmCount, mMaxSize)) {
+                mIdleScheduled = false;
+                return false;
+            }
+            /**每次空闲只创建一个,避免长时间占用主线程**/
+            mIdleWebViews.add(create());
+            boolean more = mIdleWebViews.size() < Math.min(mPrewarmCount, mMaxSize);
+            mIdleScheduled = more;
+            return more;
+        }
+    };
+
+    /**
+     * 只能在主线程调用
+     */
+    public static WebViewPool getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new WebViewPool(context.getApplicationContext());
+            sInstance.mApplicationContext.registerComponentCallbacks(sInstance);
+        }
+        return sInstance;
+    }
+
+    private WebViewPool(Context applicationContext) {
+        this.mApplicationContext = applicationContext;
+    }
+
+    /**
+     * 设置池中最多缓存的WebView个数,超出的WebView在归还时直接销毁
+     */
+    public void setMaxSize(int maxSize) {
+        this.mMaxSize = maxSize < 0 ? DEFAULT_MAX_SIZE : maxSize;
+        while (mIdleWebViews.size() > mMaxSize) {
+            destroy(mIdleWebViews.remove(mIdleWebViews.size() - 1));
+        }
+    }
+
+    public void setInitializer(Initializer initializer) {
+        this.mInitializer = initializer;
+    }
+
+    /**
+     * 在主线程空闲时预创建WebView,直到池中有count个空闲的WebView
+     *
+     * @param count 预创建的个数,不超过最大缓存个数
+     */
+    public void prewarm(int count) {
+        this.mPrewarmCount = Math.max(0, count);
+        schedulePrewarm();
+    }
+
+    private void schedulePrewarm() {
+        if (mIdleScheduled || mIdleWebViews.size() >= Math.min(mPrewarmCount, mMaxSize)) {
+            return;
+        }
+        mIdleScheduled = true;
+        Looper.myQueue().addIdleHandler(mPrewarmIdleHandler);
+    }
+
+    /**
+     * 取出一个WebView,池中没有空闲的WebView时直接创建
+     *
+     * @param context 使用WebView的界面的Context
+     * @return 已经切换到界面Context的WebView
+     */
+    public WebView acquire(Context context) {
+        WebView webView;
+        if (mIdleWebViews.isEmpty()) {
+            mMissCount++;
+            webView = create();
+        } else {
+            mHitCount++;
+            webView = mIdleWebViews.remove(mIdleWebViews.size() - 1);
+            /**归还时加载的about:blank在此之前已经完成,清除它留下的历史记录**/
+            webView.clearHistory();
+        }
+        ((MutableContextWrapper) webView.getContext()).setBaseContext(context);
+        webView.onResume();
+        schedulePrewarm();
+        return webView;
+    }
+
+    /**
+     * 归还WebView: 从父视图中移除,重置状态后放回池中,池已满时销毁
+     *
+     * @param webView 通过{@link #acquire(Context)}取出的WebView
+     */
+    public void release(WebView webView) {
+        if (webView == null) {
+            return;
+        }
+        if (webView.getParent() instanceof ViewGroup) {
+            ((ViewGroup) webView.getParent()).removeView(webView);
+        }
+        if (mIdleWebViews.contains(webView)) {
+            return;
+        }
+        /**不是由池创建的WebView或池已满时直接销毁**/
+        if (!(webView instanceof PooledWebView) || mIdleWebViews.size() >= mMaxSize) {
+            destroy(webView);
+            return;
+        }
+        reset(webView);
+        mIdleWebViews.add(webView);
+    }
+
+    private void reset(WebView webView) {
+        webView.stopLoading();
+        webView.setWebViewClient(new WebViewClient());
+        webView.setWebChromeClient(new WebChromeClient());
+        webView.setDownloadListener(null);
+        webView.setOnTouchListener(null);
+        webView.setOnLongClickListener(null);
+        /**JS桥通常持有界面,不移除的话下一个页面仍可以调用它,界面也无法回收;移除在下一次加载页面后生效,因此放在加载about:blank之前**/
+        ((PooledWebView) webView).removeJavascriptInterfaces();
+        resetSettings(webView.getSettings());
+        webView.loadUrl("about:blank");
+        webView.clearHistory();
+        webView.scrollTo(0, 0);
+        webView.onPause();
+        ((MutableContextWrapper) webView.getContext()).setBaseContext(mApplicationContext);
+        if (mInitializer != null) {
+            mInitializer.onInit(webView);
+        }
+    }
+
+    /**
+     * 把使用者可能修改过的WebSettings恢复为默认值,之后由{@link Initializer}重新设置统一的配置
+     */
+    private static void resetSettings(WebSettings settings) {
+        settings.setJavaScriptEnabled(false);
+        settings.setJavaScriptCanOpenWindowsAutomatically(false);
+        settings.setSupportMultipleWindows(false);
+        settings.setAllowFileAccess(true);
+        settings.setAllowContentAccess(true);
+        settings.setAllowFileAccessFromFileURLs(false);
+        settings.setAllowUniversalAccessFromFileURLs(false);
+        settings.setDomStorageEnabled(false);
+        settings.setDatabaseEnabled(false);
+        settings.setGeolocationEnabled(true);
+        settings.setCacheMode(WebSettings.LOAD_DEFAULT);
+        settings.setBlockNetworkImage(false);
+        settings.setLoadsImagesAutomatically(true);
+        settings.setSupportZoom(true);
+        settings.setBuiltInZoomControls(false);
+        settings.setUseWideViewPort(false);
+        settings.setLoadWithOverviewMode(false);
+        settings.setTextZoom(100);
+        /**传null恢复默认的UserAgent**/
+        settings.setUserAgentString(null);
+        if (Build.VERSION.SDK_INT >= 17) {
+            settings.setMediaPlaybackRequiresUserGesture(true);
+        }
+        if (Build.VERSION.SDK_INT >= 21) {
+            settings.setMixedContentMode(WebSettings.MIXED_CONTENT_NEVER_ALLOW);
+        }
+    }
+
+    private WebView create() {
+        mCreatedCount++;
+        WebView webView = new PooledWebView(new MutableContextWrapper(mApplicationContext));
+        if (mInitializer != null) {
+            mInitializer.onInit(webView);
+        }
+        return webView;
+    }
+
+    private void destroy(WebView webView) {
+        mDestroyedCount++;
+        webView.stopLoading();
+        webView.destroy();
+    }
+
+    /**
+     * 销毁池中所有空闲的WebView
+     */
+    public void clear() {
+        for (WebView webView : mIdleWebViews) {
+            destroy(webView);
+        }
+        mIdleWebViews.clear();
+    }
+
+    public int getIdleCount() {
+        return mIdleWebViews.size();
+    }
+
+    public long getHitCount() {
+        return mHitCount;
+    }
+
+    public long getMissCount() {
+        return mMissCount;
+    }
+
+    public long getCreatedCount() {
+        return mCreatedCount;
+    }
+
+    public long getDestroyedCount() {
+        return mDestroyedCount;
+    }
+
+    /**
+     * @return 池的统计信息
+     */
+    public String dump() {
+        long total = mHitCount + mMissCount;
+        return "WebViewPool idle=" + mIdleWebViews.size() + "/" + mMaxSize
+                + " hit=" + mHitCount + " miss=" + mMissCount
+                + " hitRate=" + (total == 0 ? 0 : mHitCount * 100 / total) + "%"
+                + " created=" + mCreatedCount + " destroyed=" + mDestroyedCount;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            clear();
+        }
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    /**
+     * 池创建的WebView,记录借出期间注入的JavascriptInterface,归还时逐个移除
+     */
+    private static class PooledWebView extends WebView {
+
+        private final Set<String> mInterfaceNames = new LinkedHashSet<>();
+
+        PooledWebView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void addJavascriptInterface(Object object, String name) {
+            super.addJavascriptInterface(object, name);
+            mInterfaceNames.add(name);
+        }
+
+        @Override
+        public void removeJavascriptInterface(String name) {
+            super.removeJavascriptInterface(name);
+            mInterfaceNames.remove(name);
+        }
+
+        void removeJavascriptInterfaces() {
+            for (String name : mInterfaceNames) {
+                super.removeJavascriptInterface(name);
+            }
+            mInterfaceNames.clear();
+        }
+    }
+}
@@ -27,6 +27,17 @@ public class HeaderRelativeLayout extends RelativeLayout{
      */
     private @ColorInt int mColor;
 
+    /**
+     * 绘制分隔线的画笔,避免在onDraw中创建对象
+     */
+    private final Paint mPaint = new Paint();
+
+    /**
+     * 批量修改的嵌套层数,大于0时子视图的重新布局请求会被合并,在{@link #endBatch()}时统一发起一次;
+     */
+    private int mBatchDepth;
+    private boolean mLayoutRequestedInBatch;
+
     public HeaderRelativeLayout(Context context) {
         super(context);
     }
@@ -45,12 +56,53 @@ public class HeaderRelativeLayout extends RelativeLayout{
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
-        Paint paint = new Paint();
-        paint.setColor(mColor);
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(mHeight);
+        mPaint.setColor(mColor);
+        mPaint.setStyle(Paint.Style.STROKE);
+        mPaint.setStrokeWidth(mHeight);
 
-        canvas.drawLine(0, this.getHeight()-mHeight, this.getWidth(), this.getHeight()-mHeight, paint);
+        canvas.drawLine(0, this.getHeight()-mHeight, this.getWidth(), this.getHeight()-mHeight, mPaint);
+    }
+
+    /**
+     * 开始批量修改子视图,期间子视图发起的requestLayout不会向上传递到容器;
+     */
+    public void beginBatch() {
+        mBatchDepth++;
+    }
+
+    /**
+     * 结束批量修改,如果期间有子视图请求重新布局,则只向容器发起一次布局请求;
+     */
+    public void endBatch() {
+        if (mBatchDepth == 0) {
+            return;
+        }
+        mBatchDepth--;
+        if (mBatchDepth == 0 && mLayoutRequestedInBatch) {
+            mLayoutRequestedInBatch = false;
+            super.requestLayout();
+        }
+    }
+
+    @Override
+    public void requestLayout() {
+        if (mBatchDepth > 0) {
+            mLayoutRequestedInBatch = true;
+            return;
+        }
+        super.requestLayout();
+    }
+
+    /**
+     * 设置分隔线,用代码构造头部时代替split_line_height,split_line_color属性
+     *
+     * @param height 分隔线的高度 px
+     * @param color  分隔线的颜色
+     */
+    public void setSplitLine(float height, @ColorInt int color) {
+        this.mHeight = height;
+        this.mColor = color;
+        this.invalidate();
     }
 
     public void setColor(@ColorRes int mColor) {
@@ -1,18 +1,20 @@
 package com.xn.uiframe.widget;
 
+import android.animation.ObjectAnimator;
+import android.animation.ValueAnimator;
 import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.view.animation.AnimationUtils;
 import android.view.animation.LinearInterpolator;
-import android.view.animation.RotateAnimation;
 import android.widget.ImageView;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
 import com.xn.uiframe.R;
+import com.xn.uiframe.builder.UIFrameViewBuilders;
 import com.xn.uiframe.refreshlayout.OnHeaderListener;
+import com.xn.uiframe.utils.StatusTextPinner;
 
 /**
  * <p>
@@ -33,40 +35,114 @@ public class UIFrameRefreshHeader extends RelativeLayout implements OnHeaderList
     public static final int DONE = 5;
     // 当前状态
     private int state = INIT;
-    // 刷新成功
-    private  RotateAnimation refreshingAnimation;
-    private  RotateAnimation rotateAnimation;
+    // 箭头翻转动画时间
+    private static final int PULL_FLIP_DURATION = 100;
+    // 刷新图标旋转一周的时间
+    private static final int REFRESHING_ROTATE_DURATION = 1500;
+    // 所有版本都用属性动画旋转同一个刷新图标,保证各版本的样式和尺寸一致
+    private ObjectAnimator refreshingAnimator;
     private View headerView;
     // 下拉的箭头
     private ImageView pullView;
     // 正在刷新的图标
     private ImageView refreshingView;
     // 刷新结果图标
+    // 各个图标只在VISIBLE和INVISIBLE之间切换,占用的空间不变,切换状态时只重绘不重新布局
     private ImageView refreshStateImageView;
     // 刷新结果：成功或失败
     private TextView refreshStateTextView;
+    // 预先取出的状态文字,切换状态时不再读取资源
+    private CharSequence textPullToRefresh;
+    private CharSequence textReleaseToRefresh;
+    private CharSequence textRefreshing;
+    private CharSequence textRefreshSucceed;
+    private CharSequence textRefreshFail;
+    private CharSequence textRefreshCancel;
     private boolean isRefreshAfter=false;
 
 
     public UIFrameRefreshHeader(Context context) {
         super(context);
 
-        headerView= LayoutInflater.from(context).inflate(R.layout.ui_frame_refresh_head, this, true);
+        if (UIFrameViewBuilders.isEnabled()) {
+            addView(UIFrameViewBuilders.buildRefreshHead(context));
+            headerView = this;
+        } else {
+            headerView = LayoutInflater.from(context).inflate(R.layout.ui_frame_refresh_head, this, true);
+        }
         // 初始化下拉布局
         pullView = (ImageView) headerView.findViewById(R.id.ui_frame_pull_flag_icon);
         refreshStateTextView = (TextView) headerView.findViewById(R.id.ui_frame_refresh_header_status_text);
         refreshingView = (ImageView)headerView.findViewById(R.id.ui_frame_loading_icon);
         refreshStateImageView = (ImageView) headerView.findViewById(R.id.ui_frame_refresh_status_image);
 
-        rotateAnimation = (RotateAnimation) AnimationUtils.loadAnimation(context, R.anim.ui_frame_refresh_icon_reverse_anim);
-        refreshingAnimation = (RotateAnimation) AnimationUtils.loadAnimation(context, R.anim.ui_frame_refresh_icon_rotating);
-        // 添加匀速转动动画
-        LinearInterpolator lir = new LinearInterpolator();
-        rotateAnimation.setInterpolator(lir);
-        refreshingAnimation.setInterpolator(lir);
+        initStatusTexts(context);
+        initRefreshingIndicator();
         measureView(headerView);
         changeState(INIT);
     }
+
+    /**
+     * 读取所有状态文字并按最宽的文字固定状态TextView的宽度,切换状态时只重绘不重新布局
+     * @param context
+     */
+    private void initStatusTexts(Context context) {
+        textPullToRefresh = context.getText(R.string.ui_frame_pull_to_refresh);
+        textReleaseToRefresh = context.getText(R.string.ui_frame_release_to_refresh);
+        textRefreshing = context.getText(R.string.ui_frame_refreshing);
+        textRefreshSucceed = context.getText(R.string.ui_frame_refresh_succeed);
+        textRefreshFail = context.getText(R.string.ui_frame_refresh_fail);
+        textRefreshCancel = context.getText(R.string.ui_frame_refresh_cancel);
+        StatusTextPinner.pinWidth(refreshStateTextView, textPullToRefresh, textReleaseToRefresh, textRefreshing,
+                textRefreshSucceed, textRefreshFail, textRefreshCancel);
+    }
+
+    /**
+     * 初始化正在刷新的旋转图标
+     */
+    private void initRefreshingIndicator() {
+        // 添加匀速转动动画
+        refreshingAnimator = ObjectAnimator.ofFloat(refreshingView, View.ROTATION, 0f, 360f);
+        refreshingAnimator.setDuration(REFRESHING_ROTATE_DURATION);
+        refreshingAnimator.setRepeatCount(ValueAnimator.INFINITE);
+        refreshingAnimator.setInterpolator(new LinearInterpolator());
+    }
+
+    private void startRefreshingIndicator() {
+        if (!refreshingAnimator.isStarted()) {
+            // 旋转期间使用硬件层,每帧只修改RenderNode的旋转属性,不需要重新绘制图标
+            refreshingView.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            refreshingAnimator.start();
+        }
+    }
+
+    private void stopRefreshingIndicator() {
+        if (refreshingAnimator.isStarted()) {
+            refreshingAnimator.cancel();
+            refreshingView.setRotation(0f);
+            refreshingView.setLayerType(View.LAYER_TYPE_NONE, null);
+        }
+    }
+
+    private void resetPullFlag() {
+        pullView.animate().cancel();
+        pullView.setRotation(0f);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // 刷新请求在离开窗口期间保持有效,重新挂载时继续旋转
+        if (state == REFRESHING) {
+            startRefreshingIndicator();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        stopRefreshingIndicator();
+        super.onDetachedFromWindow();
+    }
     private void measureView(View child) {
         ViewGroup.LayoutParams p = child.getLayoutParams();
         if (p == null) {
@@ -113,10 +189,10 @@ public class UIFrameRefreshHeader extends RelativeLayout implements OnHeaderList
         // 刷新成功
         refreshStateImageView.setVisibility(View.VISIBLE);
         if(isRefreshSuccess){
-            refreshStateTextView.setText(R.string.ui_frame_refresh_succeed);
+            StatusTextPinner.setText(refreshStateTextView, textRefreshSucceed);
             refreshStateImageView.setBackgroundResource(R.mipmap.ui_frame_refresh_succeed_icon);
         }else{
-            refreshStateTextView.setText(R.string.ui_frame_refresh_fail);
+            StatusTextPinner.setText(refreshStateTextView, textRefreshFail);
             refreshStateImageView.setBackgroundResource(R.mipmap.ui_frame_refresh_failed_icon);
         }
 
@@ -128,7 +204,7 @@ public class UIFrameRefreshHeader extends RelativeLayout implements OnHeaderList
         changeState(DONE);
         // 刷新失败
         refreshStateImageView.setVisibility(View.VISIBLE);
-        refreshStateTextView.setText(R.string.ui_frame_refresh_cancel);
+        StatusTextPinner.setText(refreshStateTextView, textRefreshCancel);
         refreshStateImageView.setBackgroundResource(R.mipmap.ui_frame_refresh_failed_icon);
     }
 
@@ -139,9 +215,9 @@ public class UIFrameRefreshHeader extends RelativeLayout implements OnHeaderList
             case INIT:
                 // 下拉布局初始状态
                 isRefreshAfter=false;
-                refreshStateImageView.setVisibility(View.GONE);
-                refreshStateTextView.setText(R.string.ui_frame_pull_to_refresh);
-                pullView.clearAnimation();
+                refreshStateImageView.setVisibility(View.INVISIBLE);
+                StatusTextPinner.setText(refreshStateTextView, textPullToRefresh);
+                resetPullFlag();
                 pullView.setVisibility(View.VISIBLE);
                 break;
             case RELEASE_TO_REFRESH:
@@ -149,23 +225,23 @@ public class UIFrameRefreshHeader extends RelativeLayout implements OnHeaderList
                 pullView.setVisibility(View.VISIBLE);
                 if(!isRefreshAfter){
                     isRefreshAfter=true;
-                    pullView.startAnimation(rotateAnimation);
+                    pullView.animate().rotation(180f).setDuration(PULL_FLIP_DURATION).start();
                 }
               
-                refreshStateTextView.setText(R.string.ui_frame_release_to_refresh);
+                StatusTextPinner.setText(refreshStateTextView, textReleaseToRefresh);
 
                 break;
             case REFRESHING:
                 // 正在刷新状态
-                pullView.clearAnimation();
+                resetPullFlag();
                 refreshingView.setVisibility(View.VISIBLE);
                 pullView.setVisibility(View.INVISIBLE);
-                refreshingView.startAnimation(refreshingAnimation);
-                refreshStateTextView.setText(R.string.ui_frame_refreshing);
+                startRefreshingIndicator();
+                StatusTextPinner.setText(refreshStateTextView, textRefreshing);
                 break;
             case DONE:
-                refreshingView.clearAnimation();
-                refreshingView.setVisibility(View.GONE);
+                stopRefreshingIndicator();
+                refreshingView.setVisibility(View.INVISIBLE);
                 break;
         }
     }
@@ -30,7 +30,15 @@ public class UIFrameRefreshViewLayout extends RefreshLayout {
         init();
     }
 
-    public void init() {
+    /**
+     * 用代码构造(添加完内容视图)之后调用,完成与布局文件加载结束时相同的初始化
+     */
+    public void finishBuild() {
+        initContentIndex();
+        init();
+    }
+
+    private void init() {
         UIFrameRefreshHeader header = new UIFrameRefreshHeader(getContext());
         FooterView footer = new FooterView(getContext());
 
@@ -0,0 +1,34 @@
+package com.xn.uiframe;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+
+import com.xiaoniu.uiframe.demo01.AxisView;
+import com.xn.uiframe.test.DrawAllocationAuditor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 时间轴控件在列表中大量出现,onDraw中不能创建对象;
+ */
+@RunWith(AndroidJUnit4.class)
+public class AxisViewDrawAllocationTest {
+
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    @Test
+    @UiThreadTest
+    public void axisViewDrawsWithoutAllocation() throws Exception {
+        AxisView axisView = new AxisView(InstrumentationRegistry.getTargetContext());
+        axisView.setStart(true);
+
+        assertEquals(0, DrawAllocationAuditor.countDrawAllocations(axisView, 120, 200, 100));
+    }
+}
@@ -7,6 +7,7 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import com.xiaoniu.uiframe.R;
+import com.xn.uiframe.utils.ScaledDrawableCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -45,9 +46,7 @@ public class TabViewHolder implements View.OnClickListener {
     }
 
     private Drawable getDrawable(View view, int res, Context context) {
-        Drawable d = context.getResources().getDrawable(res);
-        d.setBounds(0,0,(int)(d.getMinimumWidth()*0.7),(int)(d.getMinimumHeight()*0.7));
-        return  d;
+        return ScaledDrawableCache.getInstance().get(context, res, 0.7f);
     }
 
     @Override
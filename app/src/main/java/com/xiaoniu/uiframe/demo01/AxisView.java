@@ -21,6 +21,7 @@ public class AxisView extends View {
     boolean start;
     boolean end;
     float width;
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
 
     public AxisView(Context context) {
         super(context);
@@ -42,10 +43,9 @@ public class AxisView extends View {
     @Override
     protected void onDraw(Canvas canvas) {
 
-        Paint paint = new Paint();
+        paint.setStyle(Paint.Style.FILL);
         paint.setColor(Color.RED);
         paint.setStrokeWidth(width);
-        paint.setAntiAlias(true);
         float x = (this.getWidth() -width)/2;
         if (this.start) {
             canvas.drawLine(x, this.getHeight()/2, x, this.getHeight(), paint);